@@ -0,0 +1,111 @@
+/**
+ * Latency benchmark for journaled cart changes on the till's thread.
+ * Compares cart service operations with and without the write-behind journal.
+ *
+ * Key features:
+ * - Times every single add and remove, reporting median and tail latencies
+ * - Each add is followed by removing the same unit, so carts stay within their limit
+ * - Journal flushed and fsync'd by its background writer while the till runs
+ * - Warm-up before measuring
+ * - Journal files written to a temporary directory, deleted afterwards
+ *
+ * Usage:
+ * java Benchmark.CartJournalBenchmark [operations]
+ *
+ * @see CartJournal
+ * @see CartService
+ */
+package Benchmark;
+
+import Model.Album;
+import Model.CartJournal;
+import Model.CartService;
+import Model.CatalogRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public final class CartJournalBenchmark {
+    /** Default number of measured operations */
+    private static final int DEFAULT_OPERATIONS = 1_000_000;
+
+    /** Number of open sessions */
+    private static final int SESSIONS = 1_000;
+
+    /** Interval between journal flushes */
+    private static final long FLUSH_INTERVAL_MILLIS = 10;
+
+    /** Interval between snapshots */
+    private static final long SNAPSHOT_INTERVAL_MILLIS = 1_000;
+
+    /** Prevents the JIT from discarding the measured work */
+    private static long blackhole;
+
+    private CartJournalBenchmark() {
+        // Entry point only
+    }
+
+    /**
+     * Runs the benchmark and prints latency percentiles with and without the journal.
+     *
+     * @param args Optional number of operations
+     * @throws IOException if the journal cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+        // Catalog albums, which have the SKUs the journal records
+        Album[] products = CatalogRepository.getInstance().getAlbums().toArray(new Album[0]);
+
+        measure("in memory", null, products, operations);
+        Path directory = Files.createTempDirectory("cart-journal");
+        try (CartJournal journal = new CartJournal(directory, FLUSH_INTERVAL_MILLIS, SNAPSHOT_INTERVAL_MILLIS)) {
+            measure("journaled", journal, products, operations);
+            System.out.printf("journal: %,d changes written, %d snapshots%n",
+                    journal.getWrittenCount(), journal.getSnapshotCount());
+        } finally {
+            File[] files = directory.toFile().listFiles();
+            for (File file : files == null ? new File[0] : files) {
+                file.delete();
+            }
+            directory.toFile().delete();
+        }
+        System.out.println("(checksum " + blackhole + ")");
+    }
+
+    private static void measure(String name, CartJournal journal, Album[] products, int operations) {
+        CartService service = new CartService(CartService.DEFAULT_STRIPES, 0);
+        service.setJournal(journal);
+        String[] customerIds = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            customerIds[i] = "TILL-" + i;
+            service.openSession(customerIds[i], "Customer " + i);
+        }
+
+        long[] latencies = new long[operations - operations % 2];
+        for (int pass = 0; pass < 2; pass++) {
+            // First pass warms up, second is measured
+            for (int i = 0; i + 1 < operations; i += 2) {
+                String customerId = customerIds[(i / 2) % SESSIONS];
+                Album product = products[(i / 2) % products.length];
+                long start = System.nanoTime();
+                blackhole += service.addItem(customerId, product, 1);
+                long added = System.nanoTime();
+                blackhole += service.removeItem(customerId, product, 1);
+                latencies[i] = added - start;
+                latencies[i + 1] = System.nanoTime() - added;
+            }
+        }
+        service.shutdown();
+
+        Arrays.sort(latencies);
+        int count = latencies.length;
+        System.out.printf("%-10s p50 %6.2f us  p99 %6.2f us  p99.9 %7.2f us  max %8.2f us%n", name,
+                latencies[count / 2] / 1e3,
+                latencies[(int) (count * 0.99)] / 1e3,
+                latencies[(int) (count * 0.999)] / 1e3,
+                latencies[count - 1] / 1e3);
+    }
+}
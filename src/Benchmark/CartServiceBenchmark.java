@@ -0,0 +1,112 @@
+/**
+ * Throughput benchmark for the multi-session cart service.
+ * Many threads add and remove items on carts of thousands of open sessions,
+ * as tills and kiosks sharing one JVM would.
+ *
+ * Key features:
+ * - Runs at 1, 8 and 64 threads
+ * - Compares striped locking with a single lock over every cart
+ * - Each operation adds an item to a random session's cart, then removes it
+ * - Warm-up before each measured run
+ * - Reports operations per second
+ *
+ * Usage:
+ * java Benchmark.CartServiceBenchmark [millisPerRun]
+ *
+ * @see CartService
+ */
+package Benchmark;
+
+import Enums.Genre;
+import Model.Album;
+import Model.CartService;
+import Model.Money;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class CartServiceBenchmark {
+    /** Default length of each measured run */
+    private static final long DEFAULT_RUN_MILLIS = 2000;
+
+    /** Number of open sessions */
+    private static final int SESSIONS = 10_000;
+
+    /** Thread counts measured */
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+
+    /** Prevents the JIT from discarding the measured work */
+    private static volatile long blackhole;
+
+    private CartServiceBenchmark() {
+        // Entry point only
+    }
+
+    /**
+     * Runs the benchmark and prints throughput for every thread count and locking scheme.
+     *
+     * @param args Optional run length in milliseconds
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long runMillis = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_RUN_MILLIS;
+        Album[] products = new Album[100];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Album("Album " + i, "Artist", Genre.ROCK, Money.of(10 + i, 99), "none.jpg");
+        }
+        System.out.printf("%d sessions, %d processors%n", SESSIONS, Runtime.getRuntime().availableProcessors());
+
+        for (int stripes : new int[]{CartService.DEFAULT_STRIPES, 1}) {
+            CartService service = new CartService(stripes, 0);
+            String[] customerIds = new String[SESSIONS];
+            for (int i = 0; i < SESSIONS; i++) {
+                customerIds[i] = "TILL-" + i;
+                service.openSession(customerIds[i], "Customer " + i);
+            }
+            for (int threads : THREAD_COUNTS) {
+                run(service, customerIds, products, threads, runMillis / 4);
+                double opsPerSecond = run(service, customerIds, products, threads, runMillis) * 1000.0 / runMillis;
+                System.out.printf("%2d stripe(s), %2d threads: %,14.0f ops/s%n", stripes, threads, opsPerSecond);
+            }
+            service.shutdown();
+        }
+        System.out.println("(checksum " + blackhole + ")");
+    }
+
+    private static long run(CartService service, String[] customerIds, Album[] products,
+                            int threads, long millis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long checksum = 0;
+                long count = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        String customerId = customerIds[random.nextInt(customerIds.length)];
+                        Album product = products[random.nextInt(products.length)];
+                        checksum += service.addItem(customerId, product, 1);
+                        checksum += service.removeItem(customerId, product, 1);
+                        count++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                operations.add(count);
+                blackhole += checksum;
+                done.countDown();
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+        deadline[0] = System.nanoTime() + millis * 1_000_000;
+        start.countDown();
+        done.await();
+        return operations.sum();
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Micro-benchmark for the shopping cart total hot path.
+ * Compares the fixed-point running total with re-summing prices as doubles.
+ *
+ * Key features:
+ * - Measures time per operation after a warm-up phase
+ * - Measures heap bytes allocated per operation on the calling thread
+ * - Measures add and remove on a wholesale cart holding many lines and units
+ *
+ * Usage:
+ * java Benchmark.CartTotalBenchmark [iterations]
+ *
+ * @see ShoppingCart
+ * @see Money
+ */
+package Benchmark;
+
+import Enums.Genre;
+import Model.Album;
+import Model.Customer;
+import Model.Money;
+import Model.Product;
+import Model.ShoppingCart;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+public final class CartTotalBenchmark {
+    /** Default number of measured iterations */
+    private static final int DEFAULT_ITERATIONS = 10_000_000;
+
+    /** Number of lines in the wholesale cart */
+    private static final int WHOLESALE_LINES = 10_000;
+
+    /** Number of units on each line of the wholesale cart */
+    private static final int WHOLESALE_UNITS_PER_LINE = 100;
+
+    /** Prevents the JIT from discarding the measured work */
+    private static long blackhole;
+
+    private CartTotalBenchmark() {
+        // Entry point only
+    }
+
+    /**
+     * Runs the benchmark and prints time and allocation per operation.
+     *
+     * @param args Optional number of iterations
+     */
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+
+        ShoppingCart cart = new Customer("BENCH-001", "Benchmark").getCart();
+        for (int i = 0; i < 10; i++) {
+            cart.addItem(new Album("Album " + i, "Artist", Genre.ROCK, Money.of(10 + i, 99), "none.jpg"));
+        }
+        List<Product> items = cart.getItems();
+
+        LongSupplier runningTotal = cart::getTotal;
+        LongSupplier summedCents = () -> {
+            long total = Money.ZERO;
+            for (Product item : items) {
+                total = Money.add(total, item.getPriceCents());
+            }
+            return total;
+        };
+        LongSupplier streamedDoubles = () -> Math.round(items.stream()
+                .mapToDouble(item -> item.getPriceCents() / 100.0)
+                .sum() * 100);
+
+        measure("running total (long cents)", runningTotal, iterations);
+        measure("re-summed long cents", summedCents, iterations);
+        measure("streamed doubles (previous)", streamedDoubles, iterations);
+
+        // Wholesale cart: many lines and units; add and remove must not depend on either
+        ShoppingCart wholesale = new Customer("BENCH-002", "Wholesale", Integer.MAX_VALUE).getCart();
+        Album[] products = new Album[WHOLESALE_LINES];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Album("Album " + i, "Artist", Genre.ROCK, Money.of(10, i % 100), "none.jpg");
+            wholesale.addItem(products[i], WHOLESALE_UNITS_PER_LINE);
+        }
+        int[] next = {0};
+        LongSupplier addRemove = () -> {
+            Album product = products[next[0]++ % products.length];
+            wholesale.addItem(product);
+            wholesale.removeItem(product);
+            return wholesale.getTotal();
+        };
+        measure("wholesale add + remove", addRemove, iterations);
+        System.out.println("(checksum " + blackhole + ")");
+    }
+
+    private static void measure(String name, LongSupplier operation, int iterations) {
+        for (int i = 0; i < iterations / 10; i++) {
+            blackhole += operation.getAsLong();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            blackhole += operation.getAsLong();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-30s %8.2f ns/op %8.2f bytes/op%n",
+                name, (double) elapsed / iterations, (double) allocated / iterations);
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
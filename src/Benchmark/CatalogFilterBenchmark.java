@@ -0,0 +1,110 @@
+/**
+ * Benchmark for catalog filter scans such as "ROCK under $20".
+ * Compares walking a list of Album objects with scanning CatalogColumns.
+ *
+ * Key features:
+ * - Generated catalogs of configurable sizes
+ * - Warm-up before measuring
+ * - Reports milliseconds per scan and the match count as a sanity check
+ *
+ * Usage (10M rows needs a large heap, e.g. -Xmx6g):
+ * java Benchmark.CatalogFilterBenchmark [rows...]
+ *
+ * @see CatalogColumns
+ * @see RowBitmap
+ */
+package Benchmark;
+
+import Enums.Genre;
+import Model.Album;
+import Model.CatalogColumns;
+import Model.Money;
+import Model.RowBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+public final class CatalogFilterBenchmark {
+    /** Catalog sizes measured when none are given */
+    private static final int[] DEFAULT_SIZES = {1_000_000, 10_000_000};
+
+    /** Number of measured scans per approach */
+    private static final int ROUNDS = 20;
+
+    /** Upper price bound of the filter: under $20 */
+    private static final long MAX_PRICE = Money.of(20, 0);
+
+    /** Prevents the JIT from discarding the measured work */
+    private static long blackhole;
+
+    private CatalogFilterBenchmark() {
+        // Entry point only
+    }
+
+    /**
+     * Runs the benchmark for every requested catalog size.
+     *
+     * @param args Optional catalog sizes
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int size : sizes) {
+            run(size);
+        }
+        System.out.println("(checksum " + blackhole + ")");
+    }
+
+    private static void run(int size) {
+        Random random = new Random(42);
+        Genre[] genres = Genre.values();
+        String[] artists = new String[10_000];
+        for (int i = 0; i < artists.length; i++) {
+            artists[i] = "Artist " + i;
+        }
+
+        List<Album> albums = new ArrayList<>(size);
+        CatalogColumns columns = new CatalogColumns();
+        for (int i = 0; i < size; i++) {
+            Album album = new Album("Title " + i, artists[random.nextInt(artists.length)],
+                    genres[random.nextInt(genres.length)], 500 + random.nextInt(4000), "cover.jpg");
+            albums.add(album);
+            columns.add(album);
+        }
+
+        double listMillis = measure(() -> {
+            List<Album> matches = new ArrayList<>();
+            for (Album album : albums) {
+                if (album.getGenre() == Genre.ROCK && album.getPriceCents() < MAX_PRICE) {
+                    matches.add(album);
+                }
+            }
+            return matches.size();
+        });
+        double columnMillis = measure(() -> {
+            RowBitmap matches = columns.filter(Genre.ROCK, 0, MAX_PRICE);
+            return matches.cardinality();
+        });
+
+        System.out.printf("%,d rows: List<Album> %.2f ms/scan, CatalogColumns %.2f ms/scan (%.1fx)%n",
+                size, listMillis, columnMillis, listMillis / columnMillis);
+    }
+
+    private static double measure(IntSupplier scan) {
+        for (int i = 0; i < ROUNDS / 2; i++) {
+            blackhole += scan.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            blackhole += scan.getAsInt();
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Heap footprint comparison for a large generated catalog.
+ * Compares albums holding their own title and artist strings with albums
+ * referencing names interned in the shared NameRegistry.
+ *
+ * Key features:
+ * - Every row gets freshly allocated strings, as a file import would produce
+ * - Titles and artists repeat across rows, as they do across formats
+ * - Retained heap measured after forcing garbage collection
+ *
+ * Usage:
+ * java Benchmark.CatalogFootprintBenchmark [rows]
+ *
+ * @see NameRegistry
+ * @see Album
+ */
+package Benchmark;
+
+import Enums.Genre;
+import Model.Album;
+import Model.NameRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public final class CatalogFootprintBenchmark {
+    /** Default number of generated rows */
+    private static final int DEFAULT_ROWS = 2_000_000;
+
+    /** Number of distinct titles in the generated catalog */
+    private static final int DISTINCT_TITLES = 100_000;
+
+    /** Number of distinct artists in the generated catalog */
+    private static final int DISTINCT_ARTISTS = 20_000;
+
+    private CatalogFootprintBenchmark() {
+        // Entry point only
+    }
+
+    /**
+     * Album layout before interning: every object holds its own strings.
+     */
+    private static final class PlainAlbum {
+        private final String title;
+        private final String artist;
+        private final Genre genre;
+        private final long priceCents;
+        private final String imageFileName;
+
+        PlainAlbum(String title, String artist, Genre genre, long priceCents, String imageFileName) {
+            this.title = title;
+            this.artist = artist;
+            this.genre = genre;
+            this.priceCents = priceCents;
+            this.imageFileName = imageFileName;
+        }
+    }
+
+    /**
+     * Builds both catalogs and prints their retained heap size.
+     *
+     * @param args Optional number of rows
+     */
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        Genre[] genres = Genre.values();
+
+        long plain = retainedBytes(rows, row -> new PlainAlbum(title(row), artist(row),
+                genres[row % genres.length], 1500 + row % 2000, "cover.jpg"));
+        long interned = retainedBytes(rows, row -> new Album(title(row), artist(row),
+                genres[row % genres.length], 1500 + row % 2000, "cover.jpg"));
+
+        System.out.printf("%,d rows, %,d distinct titles, %,d distinct artists%n", rows, DISTINCT_TITLES, DISTINCT_ARTISTS);
+        System.out.printf("Own strings per object:  %,d MB (%d bytes/row)%n", plain >> 20, plain / rows);
+        System.out.printf("NameRegistry ids:        %,d MB (%d bytes/row, %,d names registered)%n",
+                interned >> 20, interned / rows, NameRegistry.getInstance().size());
+    }
+
+    private static String title(int row) {
+        // A fresh String per row, as a file parser would allocate
+        return "Title " + row % DISTINCT_TITLES;
+    }
+
+    private static String artist(int row) {
+        return "Artist " + row % DISTINCT_ARTISTS;
+    }
+
+    private static long retainedBytes(int rows, IntFunction<Object> factory) {
+        long before = usedHeap();
+        List<Object> catalog = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            catalog.add(factory.apply(row));
+        }
+        long after = usedHeap();
+        if (catalog.size() != rows) {
+            throw new IllegalStateException("Catalog was not fully built");
+        }
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
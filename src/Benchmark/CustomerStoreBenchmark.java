@@ -0,0 +1,157 @@
+/**
+ * Heap and garbage collection comparison for a loyalty base of millions of customers.
+ * Compares Customer objects held in a HashMap with the off-heap CustomerStore.
+ *
+ * Key features:
+ * - Retained heap measured after forcing garbage collection
+ * - Off-heap bytes of the store reported alongside
+ * - Full collection time with the customers live, the worst-case pause
+ * - Collector counts and time while the tills allocate short-lived garbage
+ * - Lookup rate: a map get, against building a Customer facade from a record
+ *
+ * Usage (10M customers need a large heap for the HashMap and direct memory for the store):
+ * java -Xms5g -Xmx5g -XX:MaxDirectMemorySize=2g Benchmark.CustomerStoreBenchmark [customers] [heap|offheap|both]
+ *
+ * Collector figures are only comparable when each layout runs in its own JVM
+ * with a fixed heap size; with "both", the second run inherits the heap the first resized.
+ *
+ * @see CustomerStore
+ * @see Customer
+ */
+package Benchmark;
+
+import Model.CatalogRepository;
+import Model.Customer;
+import Model.CustomerStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+public final class CustomerStoreBenchmark {
+    /** Default number of customers */
+    private static final int DEFAULT_CUSTOMERS = 10_000_000;
+
+    /** Number of forced full collections timed */
+    private static final int FULL_COLLECTIONS = 3;
+
+    /** Bytes of short-lived garbage allocated while collector activity is measured */
+    private static final long CHURN_BYTES = 4L << 30;
+
+    /** Number of timed lookups */
+    private static final int LOOKUPS = 1_000_000;
+
+    /** Prevents the JIT from discarding the measured work */
+    private static long blackhole;
+
+    /** Recently allocated garbage, kept briefly so allocations escape */
+    private static final Object[] garbageRing = new Object[1024];
+
+    private CustomerStoreBenchmark() {
+        // Entry point only
+    }
+
+    /**
+     * Builds the customers each way and prints heap, pause and lookup figures.
+     *
+     * @param args Optional number of customers and which layout to measure
+     */
+    public static void main(String[] args) {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CUSTOMERS;
+        String mode = args.length > 1 ? args[1] : "both";
+        System.out.printf("%,d customers, max heap %,d MB%n", customers, Runtime.getRuntime().maxMemory() >> 20);
+
+        // Each layout built in its own method, so the first is unreachable while the second is measured
+        if (!mode.equals("offheap")) {
+            measureHeap(customers);
+        }
+        if (!mode.equals("heap")) {
+            measureOffHeap(customers);
+        }
+        System.out.println("(checksum " + blackhole + ")");
+    }
+
+    private static void measureHeap(int customers) {
+        long baseline = usedHeap();
+        Map<String, Customer> map = new HashMap<>(customers * 4 / 3 + 1);
+        for (int i = 0; i < customers; i++) {
+            String id = customerId(i);
+            map.put(id, new Customer(id, "Customer " + i));
+        }
+        report("HashMap", usedHeap() - baseline, 0, map::get, customers);
+        blackhole += map.size();
+    }
+
+    private static void measureOffHeap(int customers) {
+        CatalogRepository catalog = CatalogRepository.getInstance();
+        long baseline = usedHeap();
+        CustomerStore store = new CustomerStore(catalog, customers);
+        for (int i = 0; i < customers; i++) {
+            store.add(customerId(i), "Customer " + i);
+        }
+        report("Off-heap", usedHeap() - baseline, store.getOffHeapBytes(), store::load, customers);
+        blackhole += store.size();
+    }
+
+    private static String customerId(int i) {
+        return String.format("LOY-%08d", i);
+    }
+
+    private static void report(String name, long heapBytes, long offHeapBytes,
+                               Function<String, Customer> lookup, int customers) {
+        long fullStart = System.nanoTime();
+        for (int i = 0; i < FULL_COLLECTIONS; i++) {
+            System.gc();
+        }
+        double fullMillis = (System.nanoTime() - fullStart) / 1e6 / FULL_COLLECTIONS;
+
+        long[] before = collectorTotals();
+        long churnStart = System.nanoTime();
+        for (long allocated = 0; allocated < CHURN_BYTES; allocated += 1024) {
+            // A till's short-lived garbage: receipts, strings, boxed values
+            garbageRing[(int) (allocated >>> 10) & (garbageRing.length - 1)] = new byte[1008];
+        }
+        double churnMillis = (System.nanoTime() - churnStart) / 1e6;
+        long[] after = collectorTotals();
+
+        String[] ids = new String[LOOKUPS];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = customerId(random.nextInt(customers));
+        }
+        long lookupStart = System.nanoTime();
+        for (String id : ids) {
+            blackhole += lookup.apply(id).getName().length();
+        }
+        double lookupNanos = (double) (System.nanoTime() - lookupStart) / LOOKUPS;
+
+        System.out.printf("%-9s heap %,6d MB (%d bytes/customer), off-heap %,6d MB%n",
+                name, heapBytes >> 20, heapBytes / customers, offHeapBytes >> 20);
+        System.out.printf("%-9s full GC %,8.1f ms; churn %,d MB in %,.0f ms: %d collections, %,d ms in GC%n",
+                "", fullMillis, CHURN_BYTES >> 20, churnMillis, after[0] - before[0], after[1] - before[1]);
+        System.out.printf("%-9s lookup %,8.0f ns%n", "", lookupNanos);
+    }
+
+    /**
+     * Sums the collection count and time of every collector.
+     */
+    private static long[] collectorTotals() {
+        long[] totals = new long[2];
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            totals[0] += Math.max(0, collector.getCollectionCount());
+            totals[1] += Math.max(0, collector.getCollectionTime());
+        }
+        return totals;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
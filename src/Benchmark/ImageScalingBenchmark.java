@@ -0,0 +1,107 @@
+/**
+ * Benchmark for scaling the bundled album covers to thumbnail sizes.
+ * Compares Image.getScaledInstance(SCALE_SMOOTH) with ImageScaler's
+ * progressive bilinear/bicubic downscaling.
+ *
+ * Key features:
+ * - Covers decoded once up front, so only scaling is measured
+ * - getScaledInstance results drawn into a BufferedImage, forcing the lazy
+ *   image to actually be produced, as painting it would
+ * - Warm-up before measuring
+ * - Reports milliseconds per cover for each thumbnail size
+ *
+ * Usage:
+ * java Benchmark.ImageScalingBenchmark [imageDir]
+ *
+ * @see ImageScaler
+ */
+package Benchmark;
+
+import GUI.ImageScaler;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public final class ImageScalingBenchmark {
+    /** Directory holding the bundled covers */
+    private static final String IMAGE_DIRECTORY = "src/resources/images";
+
+    /** Thumbnail sizes used by the GUI */
+    private static final int[] SIZES = {100, 200};
+
+    /** Number of measured passes over the covers per approach */
+    private static final int ROUNDS = 5;
+
+    /** Prevents the JIT from discarding the measured work */
+    private static long blackhole;
+
+    private ImageScalingBenchmark() {
+        // Entry point only
+    }
+
+    /**
+     * Decodes the bundled covers and times both scaling approaches.
+     *
+     * @param args Optional image directory
+     * @throws IOException if the image directory cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        File directory = new File(args.length > 0 ? args[0] : IMAGE_DIRECTORY);
+        File[] files = directory.listFiles(File::isFile);
+        if (files == null) {
+            throw new IOException("Not a directory: " + directory);
+        }
+        List<BufferedImage> covers = new ArrayList<>();
+        long pixels = 0;
+        for (File file : files) {
+            BufferedImage cover = ImageIO.read(file);
+            if (cover != null) {
+                covers.add(cover);
+                pixels += (long) cover.getWidth() * cover.getHeight();
+            }
+        }
+        System.out.printf("%d covers, %.1f megapixels in total%n", covers.size(), pixels / 1e6);
+
+        for (int size : SIZES) {
+            double smooth = measure(covers, cover -> scaleSmooth(cover, size));
+            double progressive = measure(covers, cover -> {
+                BufferedImage thumbnail = ImageScaler.scaleToFit(cover, size);
+                return thumbnail.getRGB(thumbnail.getWidth() / 2, 0);
+            });
+            System.out.printf("%dpx: getScaledInstance %.2f ms/cover, ImageScaler %.2f ms/cover (%.1fx)%n",
+                    size, smooth, progressive, smooth / progressive);
+        }
+        System.out.println("(checksum " + blackhole + ")");
+    }
+
+    private static long scaleSmooth(BufferedImage cover, int size) {
+        double scale = Math.min((double) size / cover.getWidth(), (double) size / cover.getHeight());
+        int width = Math.max(1, (int) Math.round(cover.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(cover.getHeight() * scale));
+        Image scaled = cover.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = thumbnail.createGraphics();
+        g.drawImage(scaled, 0, 0, null);
+        g.dispose();
+        return thumbnail.getRGB(width / 2, 0);
+    }
+
+    private static double measure(List<BufferedImage> covers, ToLongFunction<BufferedImage> scaler) {
+        for (BufferedImage cover : covers) {
+            blackhole += scaler.applyAsLong(cover);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (BufferedImage cover : covers) {
+                blackhole += scaler.applyAsLong(cover);
+            }
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS / covers.size();
+    }
+}
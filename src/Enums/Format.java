@@ -0,0 +1,100 @@
+/**
+ * Enumeration of the physical and digital formats an album is sold in.
+ * Each catalog album can be offered in any of these formats.
+ * 
+ * Key features:
+ * - Human-readable format names
+ * - SKU suffixes for format variants
+ * - Room for formats beyond vinyl and CD
+ * 
+ * Usage:
+ * - Format variants of catalog albums
+ * - Format-specific pricing rules
+ * - Catalog tabs in the shop GUI
+ * 
+ * @see FormatVariant
+ * @see PricingPolicy
+ */
+package Enums;
+
+public enum Format {
+    /**
+     * Vinyl record, sold at the album's list price
+     */
+    VINYL("Vinyl", "VNL"),
+    
+    /**
+     * Compact disc
+     */
+    CD("CD", "CD"),
+    
+    /**
+     * Cassette tape
+     */
+    CASSETTE("Cassette", "CAS"),
+    
+    /**
+     * Digital download
+     */
+    DIGITAL("Digital", "DIG");
+
+    /** The display name for this format */
+    private final String displayName;
+
+    /** The suffix appended to an album's SKU to identify this format */
+    private final String skuSuffix;
+
+    /**
+     * Constructs a new Format with the specified display name and SKU suffix.
+     * 
+     * @param displayName The human-readable name for this format
+     * @param skuSuffix The suffix identifying this format in variant SKUs
+     */
+    Format(String displayName, String skuSuffix) {
+        this.displayName = displayName;
+        this.skuSuffix = skuSuffix;
+    }
+
+    /**
+     * Gets the display name of this format.
+     * 
+     * @return The human-readable name for this format
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Gets the SKU suffix of this format.
+     * 
+     * @return The suffix identifying this format in variant SKUs
+     */
+    public String getSkuSuffix() {
+        return skuSuffix;
+    }
+
+    /**
+     * Finds the format with the given SKU suffix.
+     * 
+     * @param skuSuffix SKU suffix to look up
+     * @return The matching format, or null if there is none
+     */
+    public static Format fromSkuSuffix(String skuSuffix) {
+        for (Format format : values()) {
+            if (format.skuSuffix.equals(skuSuffix)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the string representation of this format.
+     * 
+     * @return The display name of this format
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Enumeration of the price ranges used to group catalog albums.
+ * Each bucket covers a half-open range of prices in cents.
+ *
+ * Key features:
+ * - Human-readable bucket labels
+ * - Contiguous ranges covering every non-negative price
+ * - O(1) bucket lookup for a price
+ *
+ * Usage:
+ * - Price facets in the catalog sidebar
+ * - Price range filters
+ *
+ * @see CatalogFacets
+ * @see MusicShopGUI
+ */
+package Enums;
+
+public enum PriceBucket {
+    /**
+     * Albums under $10
+     */
+    UNDER_10("Under $10", 0, 1000),
+
+    /**
+     * Albums from $10 up to $20
+     */
+    FROM_10_TO_20("$10 - $20", 1000, 2000),
+
+    /**
+     * Albums from $20 up to $30
+     */
+    FROM_20_TO_30("$20 - $30", 2000, 3000),
+
+    /**
+     * Albums from $30 up to $50
+     */
+    FROM_30_TO_50("$30 - $50", 3000, 5000),
+
+    /**
+     * Albums of $50 and more
+     */
+    OVER_50("$50 and over", 5000, Long.MAX_VALUE);
+
+    /** Cached bucket constants, indexed by ordinal */
+    private static final PriceBucket[] BUCKETS = values();
+
+    /** Label shown in the GUI */
+    private final String label;
+
+    /** Lowest price of the bucket in cents, inclusive */
+    private final long minCents;
+
+    /** Highest price of the bucket in cents, exclusive */
+    private final long maxCents;
+
+    PriceBucket(String label, long minCents, long maxCents) {
+        this.label = label;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+    }
+
+    /**
+     * Gets the label shown in the GUI.
+     *
+     * @return Bucket label, e.g. "$10 - $20"
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the lowest price of the bucket.
+     *
+     * @return Price in cents, inclusive
+     */
+    public long getMinCents() {
+        return minCents;
+    }
+
+    /**
+     * Gets the upper price limit of the bucket.
+     *
+     * @return Price in cents, exclusive
+     */
+    public long getMaxCents() {
+        return maxCents;
+    }
+
+    /**
+     * Finds the bucket a price falls into.
+     * Negative prices are counted in the lowest bucket.
+     *
+     * @param priceCents Price in cents
+     * @return The matching bucket
+     */
+    public static PriceBucket of(long priceCents) {
+        for (int i = BUCKETS.length - 1; i > 0; i--) {
+            if (priceCents >= BUCKETS[i].minCents) {
+                return BUCKETS[i];
+            }
+        }
+        return BUCKETS[0];
+    }
+
+    /**
+     * Gets the label of the bucket.
+     *
+     * @return Bucket label
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Enumeration of the orderings available for catalog views.
+ *
+ * Key features:
+ * - Human-readable names for the sort selector
+ * - Ascending and descending price orders served by one permutation
+ *
+ * Usage:
+ * - Sort selector of the catalog tabs
+ * - Top-N catalog queries such as "cheapest 50 jazz records"
+ *
+ * @see CatalogSortIndex
+ * @see MusicShopGUI
+ */
+package Enums;
+
+public enum SortOrder {
+    /**
+     * Order in which albums were added to the catalog
+     */
+    CATALOG("Catalog order"),
+
+    /**
+     * Cheapest first
+     */
+    PRICE("Price: low to high"),
+
+    /**
+     * Most expensive first
+     */
+    PRICE_DESCENDING("Price: high to low"),
+
+    /**
+     * Alphabetical by title
+     */
+    TITLE("Title"),
+
+    /**
+     * Alphabetical by artist, then title
+     */
+    ARTIST("Artist"),
+
+    /**
+     * By genre, then title
+     */
+    GENRE("Genre");
+
+    /** Name shown in the sort selector */
+    private final String displayName;
+
+    SortOrder(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Gets the name shown in the sort selector.
+     *
+     * @return Display name, e.g. "Price: low to high"
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Gets the display name of the order.
+     *
+     * @return Display name
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -1,18 +1,38 @@
 package GUI;
 
+import Enums.Format;
 import Model.Album;
+import Model.CatalogRepository;
+import Model.Money;
 import javax.swing.*;
 import java.awt.*;
-import javax.imageio.ImageIO;
-import java.io.File;
-import java.io.IOException;
+import java.awt.image.BufferedImage;
 
 public class AlbumListCellRenderer extends JPanel implements ListCellRenderer<Album> {
     private JLabel imageLabel = new JLabel();
     private JLabel textLabel = new JLabel();
-    private static final int IMAGE_SIZE = 100;
+    /** Size of the cover thumbnails */
+    static final int IMAGE_SIZE = 100;
+    /** Fixed height of a rendered cell, so lists never measure their rows */
+    public static final int CELL_HEIGHT = IMAGE_SIZE + 10;
+    /** Fixed width of a rendered cell; lists in a wider viewport stretch it */
+    public static final int CELL_WIDTH = 320;
+    /** Shown while a cover is being loaded */
+    private static final ImageIcon PLACEHOLDER = createPlaceholder();
+    /** Format whose price is shown, or null to show no price */
+    private final Format format;
 
     public AlbumListCellRenderer() {
+        this(null);
+    }
+
+    /**
+     * Creates a renderer that also shows the album's price in a format.
+     *
+     * @param format Format to price the album in, or null to show no price
+     */
+    public AlbumListCellRenderer(Format format) {
+        this.format = format;
         setLayout(new BorderLayout(5, 5));
         setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
         imageLabel.setPreferredSize(new Dimension(IMAGE_SIZE, IMAGE_SIZE));
@@ -20,19 +40,37 @@ public class AlbumListCellRenderer extends JPanel implements ListCellRenderer<Al
         add(textLabel, BorderLayout.CENTER);
     }
 
-    private ImageIcon loadAlbumCover(String imageFileName) {
-        try {
-            String imagePath = "src/resources/images/" + imageFileName;
-            Image img = ImageIO.read(new File(imagePath));
-            if (img != null) {
-                Image scaledImg = img.getScaledInstance(IMAGE_SIZE, IMAGE_SIZE, Image.SCALE_SMOOTH);
-                return new ImageIcon(scaledImg);
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading image: " + imageFileName);
+    /**
+     * Gets the cover thumbnail of an album without blocking.
+     * On a miss in both the cache and the thumbnail atlas, the cover is queued
+     * for background decoding and a placeholder is returned; the cell is
+     * repainted when the cover is ready.
+     *
+     * @param imageFileName Cover image file name
+     * @param list List showing the cover
+     * @param index Index of the cell showing the cover
+     * @return The thumbnail, or a placeholder while it is loading
+     */
+    private ImageIcon loadAlbumCover(String imageFileName, JList<?> list, int index) {
+        ImageIcon icon = ThumbnailCache.getInstance().get(imageFileName, IMAGE_SIZE);
+        if (icon == null) {
+            // Slicing a prebuilt thumbnail is a pixel copy, cheap enough for the event dispatch thread
+            icon = CoverImageLoader.getInstance().loadFromAtlas(imageFileName, IMAGE_SIZE);
         }
-        // Return a default icon if image loading fails
-        return new ImageIcon(new byte[0]); // Empty icon
+        if (icon == null) {
+            CoverImageLoader.getInstance().request(imageFileName, IMAGE_SIZE, list, index);
+            icon = PLACEHOLDER;
+        }
+        return icon;
+    }
+
+    private static ImageIcon createPlaceholder() {
+        BufferedImage placeholder = new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = placeholder.createGraphics();
+        g.setColor(new Color(0xE0E0E0));
+        g.fillRect(0, 0, IMAGE_SIZE, IMAGE_SIZE);
+        g.dispose();
+        return new ImageIcon(placeholder);
     }
 
     @Override
@@ -43,9 +81,15 @@ public class AlbumListCellRenderer extends JPanel implements ListCellRenderer<Al
             boolean isSelected,
             boolean cellHasFocus) {
         
-        imageLabel.setIcon(loadAlbumCover(album.getImageFileName()));
-        textLabel.setText(String.format("<html>%s<br>by %s<br>Genre: %s</html>", 
-            album.getTitle(), album.getArtist(), album.getGenre()));
+        imageLabel.setIcon(loadAlbumCover(album.getImageFileName(), list, index));
+        if (format == null) {
+            textLabel.setText(String.format("<html>%s<br>by %s<br>Genre: %s</html>", 
+                album.getTitle(), album.getArtist(), album.getGenre()));
+        } else {
+            long priceCents = CatalogRepository.getInstance().getVariant(album, format).getPriceCents();
+            textLabel.setText(String.format("<html>%s<br>by %s<br>Genre: %s<br>%s: %s</html>", 
+                album.getTitle(), album.getArtist(), album.getGenre(), format, Money.format(priceCents)));
+        }
 
         if (isSelected) {
             setBackground(list.getSelectionBackground());
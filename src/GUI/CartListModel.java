@@ -0,0 +1,216 @@
+/**
+ * List model presenting a shopping cart's line items to a JList.
+ * Shows one row per product with its quantity, instead of one row per unit.
+ *
+ * Key features:
+ * - Backed by the customer's line-item ShoppingCart
+ * - Adding units of a product fires a single event, whatever the quantity
+ * - O(1) row lookup of a product's line through a product-to-row index
+ * - Removing lines fires one interval event per contiguous block of rows
+ * - Total and item count read from the cart's maintained values
+ * - Cart listeners notified once per operation
+ *
+ * Design Pattern: Adapter Pattern
+ * - Adapts the cart's line items to Swing's ListModel
+ *
+ * @see ShoppingCart
+ * @see LineItem
+ * @see CartListener
+ */
+package GUI;
+
+import Exceptions.PurchaseLimitException;
+import Interfaces.CartListener;
+import Model.LineItem;
+import Model.Product;
+import Model.ShoppingCart;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CartListModel extends AbstractListModel<LineItem> {
+    /** Cart shown by the list */
+    private final ShoppingCart cart;
+
+    /** Line items in display order, the order products were first added */
+    private final List<LineItem> rows = new ArrayList<>();
+
+    /** Row of each product's line, kept in step with the rows */
+    private final Map<Product, Integer> rowIndex = new HashMap<>();
+
+    /** Listeners notified after every cart operation */
+    private final List<CartListener> cartListeners = new ArrayList<>();
+
+    /**
+     * Constructs a model showing a cart's lines.
+     *
+     * @param cart Cart to show and change
+     */
+    public CartListModel(ShoppingCart cart) {
+        this.cart = cart;
+        rows.addAll(cart.getLineItems());
+        reindexFrom(0);
+    }
+
+    /**
+     * Adds units of a product to the cart.
+     *
+     * @param product Product to add
+     * @param quantity Number of units to add
+     * @throws PurchaseLimitException if the cart would exceed its item limit
+     */
+    public void add(Product product, int quantity) throws PurchaseLimitException {
+        LineItem existing = cart.getLineItem(product);
+        cart.addItem(product, quantity);
+        Integer index = rowIndex.get(product);
+        if (existing == null || index == null) {
+            rows.add(cart.getLineItem(product));
+            rowIndex.put(product, rows.size() - 1);
+            fireIntervalAdded(this, rows.size() - 1, rows.size() - 1);
+        } else {
+            fireContentsChanged(this, index, index);
+        }
+        fireCartChanged();
+    }
+
+    /**
+     * Removes whole lines from the cart.
+     *
+     * @param indices Row indices of the lines to remove
+     * @return Number of units removed
+     */
+    public int removeLines(int[] indices) {
+        int[] sorted = Arrays.stream(indices).filter(index -> index >= 0 && index < rows.size())
+                .distinct().sorted().toArray();
+        int removedUnits = 0;
+        // Remove from the end, one interval event per contiguous block of rows
+        int blockEnd = -1;
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            int index = sorted[i];
+            LineItem line = rows.remove(index);
+            rowIndex.remove(line.getProduct());
+            removedUnits += cart.removeItem(line.getProduct(), line.getQuantity());
+            if (blockEnd < 0) {
+                blockEnd = index;
+            }
+            if (i == 0 || sorted[i - 1] != index - 1) {
+                fireIntervalRemoved(this, index, blockEnd);
+                blockEnd = -1;
+            }
+        }
+        if (sorted.length > 0) {
+            // Lines after the first removed row moved up
+            reindexFrom(sorted[0]);
+        }
+        if (removedUnits > 0) {
+            fireCartChanged();
+        }
+        return removedUnits;
+    }
+
+    private void reindexFrom(int first) {
+        for (int index = first; index < rows.size(); index++) {
+            rowIndex.put(rows.get(index).getProduct(), index);
+        }
+    }
+
+    /**
+     * Removes every line from the cart.
+     */
+    public void clear() {
+        int size = rows.size();
+        cart.clearCart();
+        rows.clear();
+        rowIndex.clear();
+        if (size > 0) {
+            fireIntervalRemoved(this, 0, size - 1);
+        }
+        fireCartChanged();
+    }
+
+    /**
+     * Gets the number of units of a product in the cart.
+     *
+     * @param product Product to look up
+     * @return Quantity, 0 if the product is not in the cart
+     */
+    public int getQuantity(Product product) {
+        return cart.getQuantity(product);
+    }
+
+    /**
+     * Gets the total price of the cart, as maintained by the cart.
+     *
+     * @return Total in cents
+     */
+    public long getTotalCents() {
+        return cart.getTotal();
+    }
+
+    /**
+     * Gets the number of units in the cart.
+     *
+     * @return Item count
+     */
+    public int getItemCount() {
+        return cart.getItemCount();
+    }
+
+    /**
+     * Gets the cart shown by the list.
+     *
+     * @return Shopping cart
+     */
+    public ShoppingCart getCart() {
+        return cart;
+    }
+
+    /**
+     * Registers a listener notified after every cart operation.
+     *
+     * @param listener Listener to add
+     */
+    public void addCartListener(CartListener listener) {
+        cartListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a cart listener.
+     *
+     * @param listener Listener to remove
+     */
+    public void removeCartListener(CartListener listener) {
+        cartListeners.remove(listener);
+    }
+
+    private void fireCartChanged() {
+        for (CartListener listener : cartListeners) {
+            listener.cartChanged(cart);
+        }
+    }
+
+    /**
+     * Gets the number of lines shown.
+     *
+     * @return Line count
+     */
+    @Override
+    public int getSize() {
+        return rows.size();
+    }
+
+    /**
+     * Gets the line shown at a list position.
+     *
+     * @param index List position
+     * @return The line at that position
+     */
+    @Override
+    public LineItem getElementAt(int index) {
+        return rows.get(index);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * List model presenting a view of the catalog's albums to a JList.
+ * Holds catalog row numbers only; albums are resolved through the catalog
+ * when the list asks for them, which a JList with fixed cell sizes does for
+ * visible rows only. Albums of a binary catalog are created at that point.
+ *
+ * Key features:
+ * - O(1) construction and refill, whatever the catalog size
+ * - Identity view over the whole catalog without a row array
+ * - No album list of its own; rows are resolved on demand
+ * - One batch of list events per refill instead of one event per album
+ *
+ * Design Pattern: Adapter Pattern
+ * - Adapts catalog row arrays to Swing's ListModel
+ *
+ * @see CatalogRepository
+ * @see MusicShopGUI
+ */
+package GUI;
+
+import Model.Album;
+import Model.CatalogRepository;
+
+import javax.swing.*;
+
+public class CatalogListModel extends AbstractListModel<Album> {
+    /** Catalog resolving album rows */
+    private final CatalogRepository catalog;
+
+    /** Rows shown, in display order, or null to show every album in catalog order */
+    private int[] rows;
+
+    /**
+     * Constructs a model showing every album in catalog order.
+     *
+     * @param catalog Catalog resolving album rows
+     */
+    public CatalogListModel(CatalogRepository catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Replaces the rows shown by the list.
+     *
+     * @param rows Catalog rows in display order, or null to show every album in catalog order
+     */
+    public void setRows(int[] rows) {
+        int oldSize = getSize();
+        this.rows = rows;
+        int newSize = getSize();
+
+        if (newSize < oldSize) {
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        } else if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        }
+        if (Math.min(oldSize, newSize) > 0) {
+            fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+        }
+    }
+
+    /**
+     * Gets the number of albums shown.
+     *
+     * @return Row count
+     */
+    @Override
+    public int getSize() {
+        return rows == null ? catalog.getAlbumCount() : rows.length;
+    }
+
+    /**
+     * Gets the album shown at a list position.
+     *
+     * @param index List position
+     * @return The album at that position
+     */
+    @Override
+    public Album getElementAt(int index) {
+        return catalog.getAlbum(rows == null ? index : rows[index]);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Search-as-you-type field for the catalog tabs of the music shop.
+ * Runs queries against the catalog search index off the event dispatch thread.
+ *
+ * Key features:
+ * - Debounced queries while the user is typing
+ * - Background search through SwingWorker, finding every match so counts are exact
+ * - Cancellation of queries made stale by newer input
+ * - Results delivered back on the event dispatch thread
+ *
+ * Design Pattern: Observer Pattern
+ * - Notifies a listener whenever new search results are available
+ *
+ * @see CatalogSearchIndex
+ * @see MusicShopGUI
+ */
+package GUI;
+
+import Model.CatalogSearchIndex;
+import Model.RowBitmap;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class CatalogSearchPanel extends JPanel {
+    /** Delay after the last keystroke before a query is run */
+    private static final int DEBOUNCE_DELAY_MS = 150;
+
+    /** Provides the search index to query */
+    private final Supplier<CatalogSearchIndex> indexSupplier;
+
+    /** Receives every matching catalog position, or null when the search is cleared */
+    private final Consumer<RowBitmap> resultListener;
+
+    /** GUI Components */
+    private final JTextField searchField = new JTextField();
+    private final Timer debounceTimer;
+
+    /** Query currently running in the background, if any */
+    private SwingWorker<RowBitmap, Void> runningSearch;
+
+    /**
+     * Constructs a new search panel.
+     *
+     * @param indexSupplier Provides the search index to query
+     * @param resultListener Receives every matching catalog position, or null when the search is cleared
+     */
+    public CatalogSearchPanel(Supplier<CatalogSearchIndex> indexSupplier, Consumer<RowBitmap> resultListener) {
+        this.indexSupplier = indexSupplier;
+        this.resultListener = resultListener;
+
+        setLayout(new BorderLayout(5, 5));
+        add(new JLabel("Search:"), BorderLayout.WEST);
+        add(searchField, BorderLayout.CENTER);
+
+        debounceTimer = new Timer(DEBOUNCE_DELAY_MS, e -> runSearch());
+        debounceTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+        });
+    }
+
+    /**
+     * Starts a background query for the current text.
+     * Any query still running for older text is cancelled.
+     */
+    private void runSearch() {
+        if (runningSearch != null) {
+            runningSearch.cancel(true);
+            runningSearch = null;
+        }
+
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            resultListener.accept(null);
+            return;
+        }
+
+        runningSearch = new SwingWorker<>() {
+            @Override
+            protected RowBitmap doInBackground() {
+                return indexSupplier.get().searchAll(query);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || runningSearch != this) {
+                    return;
+                }
+                runningSearch = null;
+                try {
+                    resultListener.accept(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Search failed: " + e.getMessage());
+                }
+            }
+        };
+        runningSearch.execute();
+    }
+}
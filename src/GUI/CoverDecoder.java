@@ -0,0 +1,153 @@
+/**
+ * Decodes album covers close to the size they are shown at.
+ * Covers are only ever displayed as small thumbnails, so decoding the
+ * multi-megapixel originals at full resolution wastes time and memory.
+ *
+ * Key features:
+ * - Reads the image dimensions from the header before decoding any pixels
+ * - Decodes with ImageReadParam source subsampling, keeping only every n-th
+ *   pixel and row, down to about twice the target size
+ * - The remaining scaling is left to ImageScaler for a smooth result
+ * - Covers loaded from the classpath, so they also load from a packaged jar;
+ *   falls back to the working-directory image folder when they are not on the classpath
+ * - Header-only check of whether a cover can be decoded, for startup validation
+ *
+ * @see CoverImageLoader
+ * @see CoverValidator
+ * @see ImageScaler
+ */
+package GUI;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+public final class CoverDecoder {
+    /** Classpath location of the cover images */
+    private static final String IMAGE_RESOURCE = "/resources/images/";
+
+    /** Directory holding the cover images, relative to the working directory */
+    private static final String IMAGE_DIRECTORY = "src/resources/images/";
+
+    /** Decoded images keep at least this many times the target size, for the final smooth scaling */
+    private static final int OVERSAMPLING = 2;
+
+    private CoverDecoder() {
+        // Static utility
+    }
+
+    /**
+     * Decodes a cover, from the classpath or else the image folder,
+     * at about twice the given size.
+     *
+     * @param fileName Cover image file name
+     * @param size Size of the square the cover will be scaled to fit, in pixels
+     * @return The decoded image, or null if the cover is missing or cannot be decoded
+     * @throws IOException if the cover cannot be read
+     */
+    public static BufferedImage decode(String fileName, int size) throws IOException {
+        InputStream resource = CoverDecoder.class.getResourceAsStream(IMAGE_RESOURCE + fileName);
+        if (resource != null) {
+            try (InputStream stream = resource;
+                 ImageInputStream input = new MemoryCacheImageInputStream(stream)) {
+                return decode(input, size);
+            }
+        }
+        File file = new File(IMAGE_DIRECTORY + fileName);
+        return file.isFile() ? decode(file, size) : null;
+    }
+
+    /**
+     * Checks that a cover exists and is in a format an image reader recognizes.
+     * Only the start of the file is read.
+     *
+     * @param fileName Cover image file name
+     * @return true if the cover can be decoded
+     */
+    public static boolean canDecode(String fileName) {
+        if (fileName == null || fileName.isEmpty()) {
+            return false;
+        }
+        try {
+            InputStream resource = CoverDecoder.class.getResourceAsStream(IMAGE_RESOURCE + fileName);
+            if (resource != null) {
+                try (InputStream stream = resource;
+                     ImageInputStream input = new MemoryCacheImageInputStream(stream)) {
+                    return ImageIO.getImageReaders(input).hasNext();
+                }
+            }
+            File file = new File(IMAGE_DIRECTORY + fileName);
+            if (!file.isFile()) {
+                return false;
+            }
+            try (ImageInputStream input = new FileImageInputStream(file)) {
+                return ImageIO.getImageReaders(input).hasNext();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decodes an image file at about twice the given size.
+     *
+     * @param file Image file
+     * @param size Size of the square the image will be scaled to fit, in pixels
+     * @return The decoded image, or null if no reader supports the file
+     * @throws IOException if the file cannot be read or decoded
+     */
+    public static BufferedImage decode(File file, int size) throws IOException {
+        try (ImageInputStream input = new FileImageInputStream(file)) {
+            return decode(input, size);
+        }
+    }
+
+    /**
+     * Decodes the first image of a stream, subsampled to about twice the given size.
+     *
+     * @param input Image stream
+     * @param size Size of the square the image will be scaled to fit, in pixels
+     * @return The decoded image, or null if no reader supports the stream
+     * @throws IOException if the image cannot be decoded
+     */
+    public static BufferedImage decode(ImageInputStream input, int size) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int step = subsampling(reader.getWidth(0), reader.getHeight(0), size);
+            ImageReadParam param = reader.getDefaultReadParam();
+            if (step > 1) {
+                param.setSourceSubsampling(step, step, 0, 0);
+            }
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Computes the subsampling step for an image.
+     * The longer side is what limits a scale-to-fit thumbnail, so it is kept
+     * at no less than OVERSAMPLING times the target size.
+     *
+     * @param width Image width in pixels
+     * @param height Image height in pixels
+     * @param size Size of the square the image will be scaled to fit, in pixels
+     * @return Keep every n-th pixel and row; 1 to decode at full resolution
+     */
+    static int subsampling(int width, int height, int size) {
+        return Math.max(1, Math.max(width, height) / (OVERSAMPLING * Math.max(1, size)));
+    }
+}
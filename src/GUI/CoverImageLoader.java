@@ -0,0 +1,311 @@
+/**
+ * Background loader for album cover thumbnails.
+ * Decodes covers on a small worker pool so the event dispatch thread never waits on disk or the decoder.
+ *
+ * Key features:
+ * - Bounded pool of low-priority daemon workers
+ * - Most recent requests served first, so the rows being looked at load first
+ * - One decode per cover and size, however many cells are waiting for it
+ * - Loaded thumbnails go to the ThumbnailCache; only the waiting cells are repainted
+ * - Thumbnails found in the prebuilt ThumbnailAtlas are sliced out without decoding
+ * - Other covers decoded subsampled, close to the thumbnail size, by CoverDecoder
+ * - Missing or unreadable covers replaced by the default cover and reported once
+ * - Pending loads are cancelled when their rows scroll out of view
+ *
+ * Threading: request and cancel methods are called on the event dispatch thread;
+ * decoding runs on the workers.
+ *
+ * Design Pattern: Singleton Pattern
+ * - One loader shared by every catalog list
+ *
+ * @see ThumbnailCache
+ * @see ThumbnailAtlas
+ * @see CoverDecoder
+ * @see AlbumListCellRenderer
+ */
+package GUI;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+public final class CoverImageLoader {
+    /** Number of decoding threads; decoding is CPU bound, so leave a core for the GUI */
+    private static final int WORKER_THREADS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    /**
+     * Task queue that hands out the most recently added task first.
+     */
+    private static final class LastInFirstOutQueue extends LinkedBlockingDeque<Runnable> {
+        @Override
+        public boolean offer(Runnable task) {
+            return offerFirst(task);
+        }
+    }
+
+    /**
+     * A list cell waiting for a cover.
+     */
+    private static final class Target {
+        private final JList<?> list;
+        private final int index;
+
+        Target(JList<?> list, int index) {
+            this.list = list;
+            this.index = index;
+        }
+    }
+
+    /**
+     * A pending cover load and the cells waiting for it.
+     */
+    private static final class Request {
+        private final List<Target> targets = new ArrayList<>(1);
+        private Future<?> future;
+
+        boolean isWaiting(JList<?> list, int index) {
+            for (Target target : targets) {
+                if (target.list == list && target.index == index) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Lazily initialized holder for the shared loader.
+     */
+    private static final class Holder {
+        private static final CoverImageLoader INSTANCE = new CoverImageLoader(ThumbnailCache.getInstance());
+    }
+
+    /** Cache receiving the loaded thumbnails */
+    private final ThumbnailCache cache;
+
+    /** Decoding workers */
+    private final ThreadPoolExecutor executor;
+
+    /** Pending loads by cover and size; accessed on the event dispatch thread only */
+    private final Map<String, Request> pending = new HashMap<>();
+
+    /**
+     * Constructs a loader.
+     *
+     * @param cache Cache receiving the loaded thumbnails
+     */
+    public CoverImageLoader(ThumbnailCache cache) {
+        this.cache = cache;
+        this.executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS,
+                new LastInFirstOutQueue(), task -> {
+                    Thread thread = new Thread(task, "cover-loader");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the loader shared by every catalog list.
+     *
+     * @return The shared cover loader
+     */
+    public static CoverImageLoader getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Gets the cache receiving the loaded thumbnails.
+     *
+     * @return The thumbnail cache
+     */
+    public ThumbnailCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Queues a cover load for a list cell. The cell is repainted once the
+     * thumbnail is in the cache. Must be called on the event dispatch thread.
+     *
+     * @param fileName Cover image file name
+     * @param size Thumbnail size in pixels
+     * @param list List showing the cover
+     * @param index Index of the cell showing the cover, or -1 for none
+     */
+    public void request(String fileName, int size, JList<?> list, int index) {
+        String key = size + ":" + fileName;
+        Request request = pending.get(key);
+        if (request == null) {
+            Request newRequest = new Request();
+            newRequest.future = executor.submit(() -> load(key, newRequest, fileName, size));
+            pending.put(key, newRequest);
+            request = newRequest;
+        }
+        if (index >= 0 && !request.isWaiting(list, index)) {
+            request.targets.add(new Target(list, index));
+        }
+    }
+
+    private void load(String key, Request request, String fileName, int size) {
+        try {
+            cache.put(fileName, size, decode(fileName, size));
+        } catch (RuntimeException e) {
+            // Shown as the default cover from now on, instead of failing on every repaint
+            if (CoverValidator.getInstance().markBroken(fileName)) {
+                System.err.println("Error loading image: " + fileName + ", showing the default cover: " + e);
+            }
+        } finally {
+            // The pending entry must always be cleared, or the cover is never requested again
+            SwingUtilities.invokeLater(() -> loaded(key, request));
+        }
+    }
+
+    private void loaded(String key, Request request) {
+        pending.remove(key, request);
+        for (Target target : request.targets) {
+            if (target.index < target.list.getModel().getSize()) {
+                Rectangle bounds = target.list.getCellBounds(target.index, target.index);
+                if (bounds != null) {
+                    target.list.repaint(bounds);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels the loads queued for cells of a list that are no longer visible.
+     * Loads still wanted by visible cells, or already being decoded, go on.
+     * Must be called on the event dispatch thread.
+     *
+     * @param list List whose visible range changed
+     */
+    public void cancelOffscreen(JList<?> list) {
+        int first = list.getFirstVisibleIndex();
+        int last = list.getLastVisibleIndex();
+        cancelWhere(list, index -> index < first || index > last);
+    }
+
+    /**
+     * Cancels every load queued for cells of a list, e.g. after its contents changed.
+     * Must be called on the event dispatch thread.
+     *
+     * @param list List whose cells no longer need their covers
+     */
+    public void cancelAll(JList<?> list) {
+        cancelWhere(list, index -> true);
+    }
+
+    private void cancelWhere(JList<?> list, IntPredicate offscreen) {
+        Iterator<Request> requests = pending.values().iterator();
+        while (requests.hasNext()) {
+            Request request = requests.next();
+            request.targets.removeIf(target -> target.list == list && offscreen.test(target.index));
+            if (request.targets.isEmpty() && request.future.cancel(false)) {
+                executor.remove((Runnable) request.future);
+                requests.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of loads queued or running.
+     *
+     * @return Pending load count
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Gets a thumbnail from the prebuilt thumbnail atlas, without decoding.
+     * A thumbnail found in the atlas is also added to the cache.
+     *
+     * @param fileName Cover image file name
+     * @param size Thumbnail size in pixels
+     * @return The thumbnail, or null if the atlas does not hold it
+     */
+    public ImageIcon loadFromAtlas(String fileName, int size) {
+        ThumbnailAtlas atlas = ThumbnailAtlas.getShared();
+        BufferedImage thumbnail = atlas == null ? null : atlas.getThumbnail(fileName, size);
+        if (thumbnail == null) {
+            return null;
+        }
+        ImageIcon icon = new ImageIcon(thumbnail);
+        cache.put(fileName, size, icon);
+        return icon;
+    }
+
+    /**
+     * Decodes a cover into a thumbnail icon.
+     *
+     * @param fileName Cover image file name
+     * @param size Thumbnail size in pixels
+     * @return The thumbnail, or an empty icon if the image cannot be loaded
+     */
+    static ImageIcon decode(String fileName, int size) {
+        BufferedImage thumbnail = decodeThumbnail(fileName, size);
+        // Return a default icon if image loading fails
+        return thumbnail != null ? new ImageIcon(thumbnail) : new ImageIcon(new byte[0]);
+    }
+
+    /**
+     * Decodes a cover, from the classpath or else the image folder,
+     * and scales it to fit a square of the given size, keeping its aspect ratio.
+     * Covers known to be broken, or found broken now, are replaced by the default cover.
+     *
+     * @param fileName Cover image file name
+     * @param size Thumbnail size in pixels
+     * @return The thumbnail, or null if the image cannot be loaded
+     */
+    static BufferedImage decodeThumbnail(String fileName, int size) {
+        CoverValidator validator = CoverValidator.getInstance();
+        String resolved = validator.resolve(fileName);
+        BufferedImage img = null;
+        try {
+            img = CoverDecoder.decode(resolved, size);
+        } catch (IOException e) {
+            // Reported below, once per cover
+        }
+        if (img == null && !resolved.equals(CoverValidator.DEFAULT_COVER)) {
+            if (validator.markBroken(fileName)) {
+                System.err.println("Error loading image: " + fileName + ", showing the default cover");
+            }
+            return decodeThumbnail(CoverValidator.DEFAULT_COVER, size);
+        }
+        return img != null ? ImageScaler.scaleToFit(img, size) : null;
+    }
+
+    /**
+     * Decodes an image file and scales it to fit a square of the given size,
+     * keeping its aspect ratio.
+     *
+     * @param file Image file
+     * @param size Thumbnail size in pixels
+     * @return The thumbnail, or null if the image cannot be loaded
+     */
+    static BufferedImage decodeThumbnail(File file, int size) {
+        try {
+            BufferedImage img = CoverDecoder.decode(file, size);
+            if (img != null) {
+                return ImageScaler.scaleToFit(img, size);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading image: " + file.getName());
+        }
+        return null;
+    }
+}
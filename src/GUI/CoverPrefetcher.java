@@ -0,0 +1,206 @@
+/**
+ * Background prefetcher for the covers a catalog list is about to need.
+ * Predicts the next covers from how the user moves through the list and
+ * decodes them into the ThumbnailCache before they are asked for.
+ *
+ * Key features:
+ * - On selection: the preview of the selected album first, then the previews
+ *   of its neighbours, the next one in the direction of movement first
+ * - On scroll: the thumbnails of the next page in the scroll direction
+ * - A single minimum-priority daemon worker, so prefetching never competes
+ *   with visible covers loaded by CoverImageLoader or with the GUI
+ * - Each new selection or scroll prediction supersedes the queued one of the same kind
+ * - Covers already cached are skipped; atlas thumbnails are sliced, not decoded
+ *
+ * Threading: listeners run on the event dispatch thread, which resolves the
+ * rows to cover file names; decoding runs on the worker.
+ *
+ * Design Pattern: Singleton Pattern
+ * - One prefetcher shared by every catalog list
+ *
+ * @see CoverImageLoader
+ * @see ThumbnailCache
+ */
+package GUI;
+
+import Model.Album;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class CoverPrefetcher {
+    /** Number of neighbours on each side of the selection whose previews are prefetched */
+    private static final int SELECTION_NEIGHBOURS = 2;
+
+    /**
+     * A cover at a size.
+     */
+    private static final class Item {
+        private final String fileName;
+        private final int size;
+
+        Item(String fileName, int size) {
+            this.fileName = fileName;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Last position seen in a list, for telling the direction of movement.
+     */
+    private static final class Position {
+        private int selectedIndex = -1;
+        private int firstVisibleIndex = -1;
+    }
+
+    /**
+     * Lazily initialized holder for the shared prefetcher.
+     */
+    private static final class Holder {
+        private static final CoverPrefetcher INSTANCE = new CoverPrefetcher(CoverImageLoader.getInstance());
+    }
+
+    /** Loader whose cache receives the prefetched covers */
+    private final CoverImageLoader loader;
+
+    /** Cache receiving the prefetched covers */
+    private final ThumbnailCache cache;
+
+    /** Prefetching worker */
+    private final ThreadPoolExecutor executor;
+
+    /** Incremented by every selection prediction; older queued batches stop when they see it change */
+    private final AtomicInteger selectionGeneration = new AtomicInteger();
+
+    /** Incremented by every scroll prediction; older queued batches stop when they see it change */
+    private final AtomicInteger scrollGeneration = new AtomicInteger();
+
+    /** Number of covers loaded ahead of time */
+    private final AtomicLong prefetched = new AtomicLong();
+
+    /**
+     * Constructs a prefetcher.
+     *
+     * @param loader Loader whose cache receives the prefetched covers
+     */
+    public CoverPrefetcher(CoverImageLoader loader) {
+        this.loader = loader;
+        this.cache = loader.getCache();
+        this.executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "cover-prefetcher");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the prefetcher shared by every catalog list.
+     *
+     * @return The shared cover prefetcher
+     */
+    public static CoverPrefetcher getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Starts prefetching for a list, driven by its selection and by scrolling its viewport.
+     * Must be called on the event dispatch thread.
+     *
+     * @param list Catalog list
+     * @param viewport Viewport the list scrolls in
+     * @param thumbnailSize Size of the list's cover thumbnails
+     * @param previewSize Size of the preview shown for the selected album
+     */
+    public void install(JList<Album> list, JViewport viewport, int thumbnailSize, int previewSize) {
+        Position position = new Position();
+        list.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                selectionChanged(list, position, previewSize);
+            }
+        });
+        viewport.addChangeListener(e -> viewportChanged(list, position, thumbnailSize));
+    }
+
+    private void selectionChanged(JList<Album> list, Position position, int previewSize) {
+        int selected = list.getSelectedIndex();
+        if (selected < 0 || selected == position.selectedIndex) {
+            return;
+        }
+        int direction = selected < position.selectedIndex ? -1 : 1;
+        position.selectedIndex = selected;
+
+        List<Item> items = new ArrayList<>();
+        addItem(list, selected, previewSize, items);
+        for (int distance = 1; distance <= SELECTION_NEIGHBOURS; distance++) {
+            addItem(list, selected + direction * distance, previewSize, items);
+            addItem(list, selected - direction * distance, previewSize, items);
+        }
+        submit(items, selectionGeneration);
+    }
+
+    private void viewportChanged(JList<Album> list, Position position, int thumbnailSize) {
+        int first = list.getFirstVisibleIndex();
+        int last = list.getLastVisibleIndex();
+        if (first < 0 || first == position.firstVisibleIndex) {
+            return;
+        }
+        boolean down = first > position.firstVisibleIndex;
+        position.firstVisibleIndex = first;
+
+        int page = last - first + 1;
+        List<Item> items = new ArrayList<>(page);
+        for (int offset = 1; offset <= page; offset++) {
+            addItem(list, down ? last + offset : first - offset, thumbnailSize, items);
+        }
+        submit(items, scrollGeneration);
+    }
+
+    private void addItem(JList<Album> list, int index, int size, List<Item> items) {
+        if (index >= 0 && index < list.getModel().getSize()) {
+            String fileName = list.getModel().getElementAt(index).getImageFileName();
+            if (!cache.contains(fileName, size)) {
+                items.add(new Item(fileName, size));
+            }
+        }
+    }
+
+    private void submit(List<Item> items, AtomicInteger generation) {
+        int batch = generation.incrementAndGet();
+        if (!items.isEmpty()) {
+            executor.execute(() -> prefetch(items, generation, batch));
+        }
+    }
+
+    private void prefetch(List<Item> items, AtomicInteger generation, int batch) {
+        for (Item item : items) {
+            if (generation.get() != batch) {
+                return;
+            }
+            if (cache.contains(item.fileName, item.size)) {
+                continue;
+            }
+            if (loader.loadFromAtlas(item.fileName, item.size) == null) {
+                cache.put(item.fileName, item.size, CoverImageLoader.decode(item.fileName, item.size));
+            }
+            prefetched.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of covers loaded ahead of time.
+     *
+     * @return Prefetched cover count
+     */
+    public long getPrefetchedCount() {
+        return prefetched.get();
+    }
+}
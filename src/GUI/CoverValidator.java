@@ -0,0 +1,186 @@
+/**
+ * Startup check of the cover images referenced by the catalog.
+ * Finds missing and unreadable covers once, so they are replaced by the
+ * default cover instead of being retried and reported on every repaint.
+ *
+ * Key features:
+ * - Every distinct image file name checked in parallel
+ * - Catalogs validated from their image file names, creating only the products with broken covers
+ * - Meant to run off the event dispatch thread, as it reads every cover file
+ * - A cover counts as broken when it is missing or no image reader recognizes it
+ * - Negative cache of broken covers, resolved to the bundled default cover
+ * - Covers found broken later, while loading, are added to the negative cache
+ * - Report of broken covers and the products referencing them, and of
+ *   the default cover itself if it cannot be shown
+ *
+ * Design Pattern: Singleton Pattern
+ * - One negative cache shared by every cover loader
+ *
+ * @see CoverDecoder
+ * @see CoverImageLoader
+ */
+package GUI;
+
+import Model.CatalogRepository;
+import Model.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public final class CoverValidator {
+    /** Cover shown in place of broken ones */
+    public static final String DEFAULT_COVER = "default_album.png";
+
+    /**
+     * Result of a validation pass.
+     */
+    public static final class Report {
+        private final int checkedCount;
+        private final Map<String, List<Product>> brokenReferences;
+
+        Report(int checkedCount, Map<String, List<Product>> brokenReferences) {
+            this.checkedCount = checkedCount;
+            this.brokenReferences = brokenReferences;
+        }
+
+        /**
+         * Gets the number of distinct image files checked.
+         *
+         * @return Checked file count
+         */
+        public int getCheckedCount() {
+            return checkedCount;
+        }
+
+        /**
+         * Gets the broken image files, in name order.
+         *
+         * @return File names of missing or unreadable covers
+         */
+        public Set<String> getBrokenFiles() {
+            return Collections.unmodifiableSet(brokenReferences.keySet());
+        }
+
+        /**
+         * Gets the products referencing a broken image file.
+         *
+         * @param fileName Broken image file name
+         * @return Products showing that cover, empty if the file is not broken
+         */
+        public List<Product> getReferences(String fileName) {
+            return Collections.unmodifiableList(brokenReferences.getOrDefault(fileName, List.of()));
+        }
+
+        /**
+         * Checks whether every referenced cover can be shown.
+         *
+         * @return true if no cover is broken
+         */
+        public boolean isClean() {
+            return brokenReferences.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(String.format("%d of %d cover images missing or unreadable%n",
+                    brokenReferences.size(), checkedCount));
+            brokenReferences.forEach((fileName, products) -> {
+                report.append("  ").append(fileName).append(':');
+                if (fileName.equals(DEFAULT_COVER)) {
+                    report.append(" default cover");
+                }
+                for (Product product : products) {
+                    report.append(' ').append(product.getSku()).append(" \"").append(product.getName()).append('"');
+                }
+                report.append(System.lineSeparator());
+            });
+            return report.toString();
+        }
+    }
+
+    /**
+     * Lazily initialized holder for the shared validator.
+     */
+    private static final class Holder {
+        private static final CoverValidator INSTANCE = new CoverValidator();
+    }
+
+    /** Image files known to be missing or unreadable */
+    private final Set<String> brokenFiles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Gets the validator shared by every cover loader.
+     *
+     * @return The shared cover validator
+     */
+    public static CoverValidator getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Checks the cover of every product in a catalog, in parallel, and records the broken ones.
+     * Only the products referencing a broken cover are looked up, so a lazily
+     * loaded catalog is not created in full.
+     *
+     * @param catalog Catalog whose covers are shown
+     * @return Report of the broken covers and the products referencing them
+     */
+    public Report validate(CatalogRepository catalog) {
+        Set<String> fileNames = new HashSet<>();
+        fileNames.add(DEFAULT_COVER);
+        for (String fileName : catalog.getImageFileNames()) {
+            fileNames.add(key(fileName));
+        }
+        Set<String> broken = fileNames.parallelStream()
+                .filter(fileName -> !CoverDecoder.canDecode(fileName))
+                .collect(Collectors.toSet());
+        brokenFiles.addAll(broken);
+
+        Map<String, List<Product>> brokenReferences = new TreeMap<>();
+        for (String fileName : broken) {
+            brokenReferences.put(fileName, new ArrayList<>(catalog.findByImageFileName(fileName)));
+        }
+        return new Report(fileNames.size(), brokenReferences);
+    }
+
+    private static String key(String fileName) {
+        return fileName == null ? "" : fileName;
+    }
+
+    /**
+     * Gets the image file to load for a cover.
+     *
+     * @param fileName Cover image file name
+     * @return The default cover if the cover is known to be broken, otherwise the cover itself
+     */
+    public String resolve(String fileName) {
+        return isBroken(fileName) ? DEFAULT_COVER : fileName;
+    }
+
+    /**
+     * Checks whether a cover is known to be missing or unreadable.
+     *
+     * @param fileName Cover image file name
+     * @return true if the cover is in the negative cache
+     */
+    public boolean isBroken(String fileName) {
+        return brokenFiles.contains(key(fileName));
+    }
+
+    /**
+     * Records a cover found to be broken while loading it.
+     *
+     * @param fileName Cover image file name
+     * @return true if the cover was not known to be broken yet
+     */
+    public boolean markBroken(String fileName) {
+        return brokenFiles.add(key(fileName));
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Facet sidebar for the catalog tabs of the music shop.
+ * Shows how many albums of the current result fall into each genre,
+ * price range and top artist, and lets the user narrow the result.
+ *
+ * Key features:
+ * - Genre and price range selection with live counts
+ * - Top artists of the current result
+ * - Counts supplied by the catalog's facet engine, never recounted here
+ *
+ * Design Pattern: Observer Pattern
+ * - Notifies a listener whenever the selected genre or price range changes
+ *
+ * @see CatalogFacets
+ * @see MusicShopGUI
+ */
+package GUI;
+
+import Enums.Genre;
+import Enums.PriceBucket;
+import Model.CatalogFacets;
+import Model.NameRegistry;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class FacetPanel extends JPanel {
+    /** Number of artists listed in the sidebar */
+    private static final int TOP_ARTISTS = 8;
+
+    /** Called when the selected genre or price range changes */
+    private final Runnable selectionListener;
+
+    /** GUI Components */
+    private final Map<Genre, JRadioButton> genreButtons = new EnumMap<>(Genre.class);
+    private final Map<PriceBucket, JRadioButton> priceButtons = new EnumMap<>(PriceBucket.class);
+    private final JRadioButton allGenresButton = new JRadioButton();
+    private final JRadioButton allPricesButton = new JRadioButton();
+    private final DefaultListModel<String> artistListModel = new DefaultListModel<>();
+
+    /**
+     * Constructs a new facet sidebar.
+     *
+     * @param priceTitle Title of the price section, naming the price the ranges apply to
+     * @param selectionListener Called when the selected genre or price range changes
+     */
+    public FacetPanel(String priceTitle, Runnable selectionListener) {
+        this.selectionListener = selectionListener;
+
+        setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+        add(createSection("Genre", allGenresButton, genreButtons, Genre.values()));
+        add(createSection(priceTitle, allPricesButton, priceButtons, PriceBucket.values()));
+
+        JList<String> artistList = new JList<>(artistListModel);
+        artistList.setEnabled(false);
+        JPanel artistPanel = new JPanel(new BorderLayout());
+        artistPanel.setBorder(BorderFactory.createTitledBorder("Top Artists"));
+        artistPanel.add(artistList, BorderLayout.CENTER);
+        add(artistPanel);
+    }
+
+    private <E extends Enum<E>> JPanel createSection(String title, JRadioButton allButton,
+                                                     Map<E, JRadioButton> buttons, E[] values) {
+        JPanel section = new JPanel(new GridLayout(0, 1));
+        section.setBorder(BorderFactory.createTitledBorder(title));
+        ButtonGroup group = new ButtonGroup();
+
+        allButton.setSelected(true);
+        allButton.addActionListener(e -> selectionListener.run());
+        group.add(allButton);
+        section.add(allButton);
+        for (E value : values) {
+            JRadioButton button = new JRadioButton(value.toString());
+            button.addActionListener(e -> selectionListener.run());
+            group.add(button);
+            section.add(button);
+            buttons.put(value, button);
+        }
+        return section;
+    }
+
+    /**
+     * Gets the genre selected in the sidebar.
+     *
+     * @return Selected genre, or null if every genre is shown
+     */
+    public Genre getSelectedGenre() {
+        return selected(genreButtons);
+    }
+
+    /**
+     * Gets the price range selected in the sidebar.
+     *
+     * @return Selected price bucket, or null if every price is shown
+     */
+    public PriceBucket getSelectedPriceBucket() {
+        return selected(priceButtons);
+    }
+
+    private static <E> E selected(Map<E, JRadioButton> buttons) {
+        for (Map.Entry<E, JRadioButton> entry : buttons.entrySet()) {
+            if (entry.getValue().isSelected()) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Updates the counts shown in the sidebar.
+     *
+     * @param facets Facet counts of the current result
+     */
+    public void showCounts(CatalogFacets facets) {
+        allGenresButton.setText("All (" + facets.getTotal() + ")");
+        allPricesButton.setText("All (" + facets.getTotal() + ")");
+        genreButtons.forEach((genre, button) ->
+            button.setText(genre + " (" + facets.getGenreCount(genre) + ")"));
+        priceButtons.forEach((bucket, button) ->
+            button.setText(bucket + " (" + facets.getPriceBucketCount(bucket) + ")"));
+
+        artistListModel.removeAllElements();
+        NameRegistry names = NameRegistry.getInstance();
+        for (int artistId : facets.topArtists(TOP_ARTISTS)) {
+            artistListModel.addElement(names.name(artistId) + " (" + facets.getArtistCount(artistId) + ")");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * High-quality image downscaling for album covers.
+ * Replaces Image.getScaledInstance, which is slow and returns a lazily
+ * produced image that cannot be accelerated.
+ *
+ * Key features:
+ * - Progressive downscaling: halves the image with bilinear filtering until
+ *   it is within 2x of the target, then finishes with one bicubic step
+ * - Each step is a single Graphics2D draw, which Java2D accelerates
+ * - Output compatible with the screen's GraphicsConfiguration, so painting
+ *   it needs no pixel format conversion
+ * - Falls back to a plain ARGB image when running headless
+ *
+ * @see CoverImageLoader
+ * @see ImageScalingBenchmark
+ */
+package GUI;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public final class ImageScaler {
+    private ImageScaler() {
+        // Static utility
+    }
+
+    /**
+     * Scales an image to fit a square of the given size, keeping its aspect ratio.
+     *
+     * @param source Image to scale
+     * @param size Size of the square in pixels
+     * @return Scaled image
+     */
+    public static BufferedImage scaleToFit(BufferedImage source, int size) {
+        double scale = Math.min((double) size / source.getWidth(), (double) size / source.getHeight());
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        return scale(source, width, height);
+    }
+
+    /**
+     * Scales an image to the given dimensions.
+     * Downscaling by more than half is done in several bilinear halving steps,
+     * which keeps the quality of an area-averaging filter at a fraction of its cost.
+     *
+     * @param source Image to scale
+     * @param width Target width in pixels
+     * @param height Target height in pixels
+     * @return Scaled image, compatible with the screen
+     */
+    public static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+
+        // Halve while the image is still more than twice the target size
+        while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+            currentWidth /= 2;
+            currentHeight /= 2;
+            current = draw(current, currentWidth, currentHeight, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        return draw(current, width, height, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, Object interpolation) {
+        BufferedImage target = createCompatibleImage(width, height);
+        Graphics2D g = target.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return target;
+    }
+
+    /**
+     * Creates a translucent image in the screen's pixel format.
+     *
+     * @param width Width in pixels
+     * @param height Height in pixels
+     * @return New image
+     */
+    static BufferedImage createCompatibleImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+}
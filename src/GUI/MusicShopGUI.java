@@ -5,9 +5,15 @@
  * Key features:
  * - Tabbed interface for browsing vinyl and CD albums
  * - Unified shopping cart for both formats
- * - Dynamic pricing (CDs priced at 40% of vinyl)
+ * - Dynamic pricing from the catalog's pricing policy (CDs priced at 40% of vinyl)
+ * - Catalog tabs are views over the same album records
  * - Album cover image preview
- * - Real-time cart total calculation
+ * - Search-as-you-type over titles and artists
+ * - Facet sidebar with genre, price and artist counts of the current result
+ * - Price, title, artist and genre ordering from precomputed sort permutations
+ * - Virtualized catalog lists: only visible rows are looked up and rendered
+ * - Album covers decoded in the background, with placeholders while loading
+ * - Line-item cart: one row per product with its quantity, total read from the cart
  * - Streamlined checkout process
  * 
  * Design Patterns:
@@ -20,43 +26,59 @@
  */
 package GUI;
 
+import Enums.Format;
 import Enums.Genre;
+import Enums.PriceBucket;
+import Enums.SortOrder;
 import Model.Album;
+import Model.CatalogRepository;
 import Model.Customer;
+import Model.FormatVariant;
+import Model.LineItem;
+import Model.Money;
+import Model.RowBitmap;
 import Exceptions.PurchaseLimitException;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
+import java.awt.image.BufferedImage;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.io.File;
+import java.util.concurrent.ExecutionException;
 
 public final class MusicShopGUI extends JFrame {
-    /** Path to album cover images */
-    private static final String IMAGE_PATH = "src/resources/images/"; // Base path for album images
+    /** Size of the cover preview shown when an album is added to the cart */
+    static final int PREVIEW_SIZE = 200;
     
     /** Maximum allowed quantity per album/CD */
     private static final int MAX_QUANTITY_PER_ITEM = 2;
     
+    /** Maximum number of search matches listed; counts cover every match */
+    private static final int MAX_LISTED_MATCHES = 200;
+    
+    /** Formats offered as catalog tabs, in tab order */
+    private static final Format[] SHOP_FORMATS = {Format.VINYL, Format.CD};
+    
     /** Current customer shopping in the store */
     private Customer customer;
     
     /** List of all available albums */
     private List<Album> availableAlbums;
     
-    /** List model for shopping cart */
-    private DefaultListModel<Album> cartListModel;
-    
-    /** Map to track quantities of items in cart */
-    private Map<String, Integer> cartQuantities;
+    /** List model for shopping cart, one row per line item */
+    private CartListModel cartListModel;
     
     /** GUI Components */
-    private JList<Album> vinylAlbumList;
-    private JList<Album> cdAlbumList;
-    private JList<Album> cartList;
+    private Map<Format, JList<Album>> albumLists;
+    private Map<Format, CatalogListModel> albumListModels;
+    private Map<Format, FacetPanel> facetPanels;
+    private Map<Format, JComboBox<SortOrder>> sortSelectors;
+    
+    /** Current search result of each tab, or null when the tab is not searching */
+    private Map<Format, RowBitmap> searchMatches;
+    private JList<LineItem> cartList;
     private JLabel totalLabel;
     private JLabel messageLabel;
     private JTabbedPane tabbedPane;
@@ -73,42 +95,44 @@ public final class MusicShopGUI extends JFrame {
 
     /**
      * Initializes the shop with default inventory and customer.
-     * Creates sample albums and sets up list models.
+     * Reads albums from the shared catalog and sets up list models.
      */
     private void initializeShop() {
         // Initialize customer
-        customer = new Customer("GUEST-001", "Guest");
-
-        // Initialize available albums
-        availableAlbums = new ArrayList<>();
-        availableAlbums.add(new Album("Greatest Hits", "Queen", Genre.ROCK, 29.99, "queen.jpeg"));
-        availableAlbums.add(new Album("Thriller", "Michael Jackson", Genre.POP, 24.99, "thriller.jpg"));
-        availableAlbums.add(new Album("Dark Side of the Moon", "Pink Floyd", Genre.ROCK, 19.99, "dark_side.jpg"));
-        availableAlbums.add(new Album("Back in Black", "AC/DC", Genre.ROCK, 21.99, "back_in_black.jpg")); 
-        availableAlbums.add(new Album("21", "Adele", Genre.POP, 18.99, "adele_21.jpg"));
-        availableAlbums.add(new Album("The Rise and Fall Of A Midwest Princess", "Chappell Roan", Genre.POP, 35.50, "chappellRoan.jpeg"));
-        availableAlbums.add(new Album("Hypnotize", "System of A Down", Genre.ROCK, 25.00, "SOAD.jpeg"));
-        availableAlbums.add(new Album("In Utero", "Nirvana", Genre.ROCK, 22.00, "nirvana.jpg"));
-        availableAlbums.add(new Album("Born This Way (Signed Edition)", "Lady Gaga", Genre.POP, 25.00, "ladygaga.jpg"));
-        availableAlbums.add(new Album("The Marshall Mathers LP", "Eminem", Genre.RAP, 20.00, "eminem.png"));
-        availableAlbums.add(new Album("OK Computer", "Radiohead", Genre.ROCK, 15.00, "radiohead.jpeg"));
-        availableAlbums.add(new Album("Mellie Collie and The Infinite Sadness", "The Smashing Pumpkins", Genre.ROCK, 19.99, "thesmashingpumkins.jpg"));
-        availableAlbums.add(new Album("Doolittle", "Pixies", Genre.ROCK, 15.00, "pixies.jpg"));
-        availableAlbums.add(new Album("Speak for Yourself", "Imogen Heap", Genre.ELECTRONIC, 18.00, "imogenheap.jpg"));
-        availableAlbums.add(new Album("Grace", "Jeff Buckley", Genre.ROCK, 15.00, "jeffbuckley.jpeg"));
-        availableAlbums.add(new Album("Weezer (Blue Album)", "Weezer", Genre.ROCK, 15.00, "weezer.jpg"));
-        availableAlbums.add(new Album("The White Album", "The Beatles", Genre.ROCK, 15.00, "thebeatles.png"));
-        availableAlbums.add(new Album("Graduation", "Kanye West", Genre.RAP, 15.00, "kanyewest.jpg"));
-        availableAlbums.add(new Album("The Colour and the Shape", "Foo Fighters", Genre.ROCK, 23.99, "foofighters.jpeg"));
-        availableAlbums.add(new Album("Rumours", "Fleetwood Mac", Genre.ROCK, 22.99, "fleetwoodmac.jpeg"));
-        availableAlbums.add(new Album("Blue", "Joni Mitchell", Genre.FOLK, 15.00, "jonimitchell.jpg"));
-        availableAlbums.add(new Album("Goo", "Sonic Youth", Genre.ROCK, 15.00, "sonicyouth.png"));
-        availableAlbums.add(new Album("Tidal", "Fiona Apple", Genre.POP, 15.00, "fionaapple.jpg"));
-        availableAlbums.add(new Album("Dreaming", "Andre Rieu", Genre.CLASSICAL, 15.00, "andrerieu.jpg"));
-        availableAlbums.add(new Album("Come Away With Me", "Norah Jones", Genre.JAZZ, 15.00, "norahjones.jpeg"));
+        // No cart-wide limit; copies per item are limited instead
+        customer = new Customer("GUEST-001", "Guest", Integer.MAX_VALUE);
+
+        // Albums are shared with the rest of the application through the catalog
+        availableAlbums = CatalogRepository.getInstance().getAlbums();
+
+        // Broken cover references are found and reported once, not on every repaint.
+        // Every cover file is read, so the check runs in the background; covers
+        // loaded before it finishes are checked by the loader itself.
+        new SwingWorker<CoverValidator.Report, Void>() {
+            @Override
+            protected CoverValidator.Report doInBackground() {
+                return CoverValidator.getInstance().validate(CatalogRepository.getInstance());
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    CoverValidator.Report coverReport = get();
+                    if (!coverReport.isClean()) {
+                        System.err.print(coverReport);
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Cover validation failed: " + e.getMessage());
+                }
+            }
+        }.execute();
         
-        cartListModel = new DefaultListModel<>();
-        cartQuantities = new HashMap<>();
+        cartListModel = new CartListModel(customer.getCart());
+        albumLists = new EnumMap<>(Format.class);
+        albumListModels = new EnumMap<>(Format.class);
+        facetPanels = new EnumMap<>(Format.class);
+        sortSelectors = new EnumMap<>(Format.class);
+        searchMatches = new EnumMap<>(Format.class);
     }
 
     /**
@@ -128,8 +152,9 @@ public final class MusicShopGUI extends JFrame {
 
         // Create tabbed pane for catalogs
         tabbedPane = new JTabbedPane();
-        tabbedPane.addTab("Vinyl", createFormatPanel(true));
-        tabbedPane.addTab("CD", createFormatPanel(false));
+        for (Format format : SHOP_FORMATS) {
+            tabbedPane.addTab(format.getDisplayName(), createFormatPanel(format));
+        }
         catalogPanel.add(tabbedPane, BorderLayout.CENTER);
 
         // Top panel for customer info
@@ -165,9 +190,10 @@ public final class MusicShopGUI extends JFrame {
         cartList.setCellRenderer(new DefaultListCellRenderer() {
             @Override
             public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-                Album album = (Album) value;
-                String displayText = String.format("%s - %s ($%.2f)", album.getTitle(), 
-                    tabbedPane.getSelectedIndex() == 0 ? "Vinyl" : "CD", album.getPrice());
+                LineItem line = (LineItem) value;
+                FormatVariant variant = (FormatVariant) line.getProduct();
+                String displayText = String.format("%s - %s x%d (%s)", variant.getTitle(), 
+                    variant.getFormat(), line.getQuantity(), Money.format(line.getLineTotalCents()));
                 return super.getListCellRendererComponent(list, displayText, index, isSelected, cellHasFocus);
             }
         });
@@ -183,6 +209,7 @@ public final class MusicShopGUI extends JFrame {
         checkoutButton.addActionListener(e -> checkout());
 
         totalLabel = new JLabel("Total: $0.00 (0 items)");
+        cartListModel.addCartListener(cart -> updateTotalLabel());
         messageLabel = new JLabel(" ");
         messageLabel.setForeground(Color.BLUE);
 
@@ -197,65 +224,132 @@ public final class MusicShopGUI extends JFrame {
 
     /**
      * Creates a panel for displaying albums of a specific format.
-     * Includes album list, preview image, and add to cart button.
+     * Every format panel is a view over the same catalog albums;
+     * only the displayed prices differ.
      * 
-     * @param isVinyl true for vinyl format, false for CD
+     * @param format format sold from this panel
      * @return JPanel containing format-specific components
      */
-    private JPanel createFormatPanel(boolean isVinyl) {
+    private JPanel createFormatPanel(Format format) {
         JPanel panel = new JPanel(new BorderLayout(5, 5));
-        String formatName = isVinyl ? "Vinyl" : "CD";
-        panel.setBorder(BorderFactory.createTitledBorder("Available " + formatName + "s"));
-
-        // Create album list
-        DefaultListModel<Album> albumListModel = new DefaultListModel<>();
-        availableAlbums.forEach(album -> {
-            // Calculate CD price: 40% of vinyl price, rounded to nearest 50 cents
-            double cdPrice = Math.round(album.getPrice() * 0.4 * 2) / 2.0;
-            Album formatAlbum = new Album(
-                album.getTitle(), 
-                album.getArtist(), 
-                album.getGenre(), 
-                isVinyl ? album.getPrice() : cdPrice,
-                album.getImageFileName()
-            );
-            albumListModel.addElement(formatAlbum);
-        });
-
-        JList<Album> albumList;
-        if (isVinyl) {
-            vinylAlbumList = new JList<>(albumListModel);
-            albumList = vinylAlbumList;
-        } else {
-            cdAlbumList = new JList<>(albumListModel);
-            albumList = cdAlbumList;
-        }
+        panel.setBorder(BorderFactory.createTitledBorder("Available " + format.getDisplayName() + "s"));
+
+        // Create album list over the shared catalog albums; rows are resolved on demand
+        CatalogListModel albumListModel = new CatalogListModel(CatalogRepository.getInstance());
+        albumListModels.put(format, albumListModel);
+
+        // Search field filters the list; positions match the catalog's album order
+        CatalogSearchPanel searchPanel = new CatalogSearchPanel(
+            () -> CatalogRepository.getInstance().getAlbumSearchIndex(),
+            matches -> {
+                searchMatches.put(format, matches);
+                refreshCatalogView(format);
+            });
+
+        // Sort selector switches between precomputed orderings
+        JComboBox<SortOrder> sortSelector = new JComboBox<>(SortOrder.values());
+        sortSelector.addActionListener(e -> refreshCatalogView(format));
+        sortSelectors.put(format, sortSelector);
+
+        JPanel toolbarPanel = new JPanel(new BorderLayout(5, 5));
+        toolbarPanel.add(searchPanel, BorderLayout.CENTER);
+        toolbarPanel.add(sortSelector, BorderLayout.EAST);
+        panel.add(toolbarPanel, BorderLayout.NORTH);
+
+        // Facet sidebar narrows the list by genre and price
+        FacetPanel facetPanel = new FacetPanel(format.getDisplayName() + " Price", () -> refreshCatalogView(format));
+        facetPanels.put(format, facetPanel);
+        panel.add(new JScrollPane(facetPanel), BorderLayout.WEST);
+
+        JList<Album> albumList = new JList<>(albumListModel);
+        albumList.setCellRenderer(new AlbumListCellRenderer(format));
+        // Fixed cell size, so the list never renders every row to measure it
+        albumList.setFixedCellHeight(AlbumListCellRenderer.CELL_HEIGHT);
+        albumList.setFixedCellWidth(AlbumListCellRenderer.CELL_WIDTH);
         albumList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        albumLists.put(format, albumList);
         JScrollPane scrollPane = new JScrollPane(albumList);
+        // Covers queued for rows that scrolled out of view are no longer needed
+        scrollPane.getViewport().addChangeListener(e -> CoverImageLoader.getInstance().cancelOffscreen(albumList));
+        // Covers of the next page and the selection's neighbours load ahead of time
+        CoverPrefetcher.getInstance().install(albumList, scrollPane.getViewport(),
+            AlbumListCellRenderer.IMAGE_SIZE, PREVIEW_SIZE);
         panel.add(scrollPane, BorderLayout.CENTER);
 
         // Add to Cart button
         JButton addButton = new JButton("Add to Cart");
-        addButton.addActionListener(e -> addToCart(isVinyl));
+        addButton.addActionListener(e -> addToCart(format));
         panel.add(addButton, BorderLayout.SOUTH);
 
+        refreshCatalogView(format);
         return panel;
     }
 
+    /**
+     * Refills a catalog list from the tab's search result, facet selection and sort order.
+     * Facet counts are shown for the whole search result, before the facet selection
+     * is applied, so other genres and price ranges stay visible. Prices are the
+     * tab's format prices. Only the first matches of a search are listed.
+     * 
+     * @param format format of the tab to refresh
+     */
+    private void refreshCatalogView(Format format) {
+        CatalogRepository catalog = CatalogRepository.getInstance();
+        FacetPanel facetPanel = facetPanels.get(format);
+        RowBitmap matches = searchMatches.get(format);
+
+        // Catalog-wide counts are maintained as albums are added; only search results are counted.
+        // The copy is sized to the catalog, which may have grown since the search ran.
+        RowBitmap rows = matches == null ? null : matches.copy(availableAlbums.size());
+        facetPanel.showCounts(rows == null ? catalog.getAlbumFacets(format) : catalog.getAlbumFacets(rows, format));
+
+        Genre genre = facetPanel.getSelectedGenre();
+        PriceBucket bucket = facetPanel.getSelectedPriceBucket();
+        if (genre != null || bucket != null) {
+            RowBitmap filtered = catalog.filterAlbums(genre, format,
+                bucket == null ? 0 : bucket.getMinCents(),
+                bucket == null ? Long.MAX_VALUE : bucket.getMaxCents());
+            rows = rows == null ? filtered : rows.and(filtered);
+        }
+
+        // Walk the precomputed permutation of the selected order; nothing is sorted here
+        SortOrder order = (SortOrder) sortSelectors.get(format).getSelectedItem();
+        if (order != SortOrder.CATALOG && !catalog.areAlbumsSorted()) {
+            // Unsorted albums are listed in catalog order until the background sort catches up
+            catalog.whenAlbumsSorted(() -> SwingUtilities.invokeLater(() -> refreshCatalogView(format)));
+        }
+        CatalogListModel listModel = albumListModels.get(format);
+        // Queued covers belong to the rows being replaced
+        CoverImageLoader.getInstance().cancelAll(albumLists.get(format));
+        if (rows == null && order == SortOrder.CATALOG) {
+            listModel.setRows(null);
+            return;
+        }
+        int limit = matches == null ? Integer.MAX_VALUE : MAX_LISTED_MATCHES;
+        int[] sortedRows = catalog.getSortedAlbumRows(order, rows, limit);
+        listModel.setRows(sortedRows);
+        if (rows != null) {
+            int found = rows.cardinality();
+            messageLabel.setText(found > sortedRows.length
+                ? String.format("Found %d matching albums, showing the first %d", found, sortedRows.length)
+                : String.format("Found %d matching albums", found));
+        }
+    }
+
     /**
      * Adds the selected album to the shopping cart.
      * Updates cart total and displays confirmation message.
      * 
-     * @param isVinyl true if adding from vinyl tab, false for CD
+     * @param format format of the tab the album is added from
      */
-    private void addToCart(boolean isVinyl) {
-        JList<Album> albumList = isVinyl ? vinylAlbumList : cdAlbumList;
-        Album selectedAlbum = albumList.getSelectedValue();
+    private void addToCart(Format format) {
+        Album selectedAlbum = albumLists.get(format).getSelectedValue();
         
         if (selectedAlbum != null) {
+            FormatVariant variant = CatalogRepository.getInstance().getVariant(selectedAlbum, format);
             try {
                 // Get current quantity of this item in cart
-                int currentQuantity = cartQuantities.getOrDefault(selectedAlbum.getTitle(), 0);
+                int currentQuantity = cartListModel.getQuantity(variant);
                 
                 // Ask user for quantity
                 String input = JOptionPane.showInputDialog(
@@ -285,39 +379,38 @@ public final class MusicShopGUI extends JFrame {
                     throw new PurchaseLimitException("You can only purchase up to " + MAX_QUANTITY_PER_ITEM + " copies of each item.");
                 }
                 
-                // Add the items to cart
-                for (int i = 0; i < quantity; i++) {
-                    cartListModel.addElement(selectedAlbum);
-                }
-                
-                // Update quantity tracking
-                cartQuantities.put(selectedAlbum.getTitle(), currentQuantity + quantity);
+                // Add the items to cart as one line; the total label follows through the cart listener
+                cartListModel.add(variant, quantity);
                 
                 // Show album image and update cart
                 try {
-                    String imagePath = getImagePath(selectedAlbum.getImageFileName());
-                    File imageFile = new File(imagePath);
-                    
-                    if (!imageFile.exists()) {
-                        messageLabel.setText("Image not found at: " + imagePath);
+                    // Usually prefetched when the album was selected
+                    String imageFileName = selectedAlbum.getImageFileName();
+                    ImageIcon previewIcon = ThumbnailCache.getInstance().get(imageFileName, PREVIEW_SIZE);
+                    if (previewIcon != null && previewIcon.getIconWidth() <= 0) {
+                        // A failed load was cached
+                        messageLabel.setText("Image not found: " + imageFileName);
                         return;
                     }
-
-                    ImageIcon albumImageIcon = new ImageIcon(imagePath);
                     
-                    if (albumImageIcon.getIconWidth() > 0) {
-                        int maxSize = 200;
-                        int width = albumImageIcon.getIconWidth();
-                        int height = albumImageIcon.getIconHeight();
-                        double scale = Math.min((double) maxSize / width, (double) maxSize / height);
-                        
-                        int scaledWidth = (int) (width * scale);
-                        int scaledHeight = (int) (height * scale);
-                        
-                        Image scaledImage = albumImageIcon.getImage()
-                            .getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
+                    if (previewIcon == null) {
+                        // Prebuilt preview from the thumbnail atlas, if one has been built
+                        previewIcon = CoverImageLoader.getInstance().loadFromAtlas(imageFileName, PREVIEW_SIZE);
+                    }
+                    
+                    if (previewIcon == null) {
+                        BufferedImage preview = CoverImageLoader.decodeThumbnail(imageFileName, PREVIEW_SIZE);
                         
-                        JLabel albumImageLabel = new JLabel(new ImageIcon(scaledImage));
+                        if (preview == null) {
+                            messageLabel.setText("Image not found: " + imageFileName);
+                            return;
+                        }
+                        previewIcon = new ImageIcon(preview);
+                        ThumbnailCache.getInstance().put(imageFileName, PREVIEW_SIZE, previewIcon);
+                    }
+                    
+                    if (previewIcon != null) {
+                        JLabel albumImageLabel = new JLabel(previewIcon);
                         albumImageLabel.setHorizontalAlignment(JLabel.CENTER);
                         
                         JPanel imagePanel = new JPanel(new BorderLayout());
@@ -327,7 +420,7 @@ public final class MusicShopGUI extends JFrame {
                         JOptionPane.showMessageDialog(this, imagePanel,
                             String.format("Added to Cart: %s (%s) - Quantity: %d", 
                                 selectedAlbum.getTitle(), 
-                                (isVinyl ? "Vinyl" : "CD"),
+                                format,
                                 quantity),
                             JOptionPane.PLAIN_MESSAGE);
                     } else {
@@ -338,10 +431,9 @@ public final class MusicShopGUI extends JFrame {
                     e.printStackTrace();
                 }
 
-                updateTotalLabel();
                 messageLabel.setText(String.format("Added: %s (%s) - Quantity: %d", 
                     selectedAlbum.getTitle(), 
-                    (isVinyl ? "Vinyl" : "CD"),
+                    format,
                     quantity));
                     
             } catch (PurchaseLimitException e) {
@@ -358,31 +450,14 @@ public final class MusicShopGUI extends JFrame {
     }
 
     /**
-     * Removes selected items from the shopping cart.
-     * Updates cart total and display.
+     * Removes the selected lines from the shopping cart.
+     * The total label is updated by the cart listener.
      */
     private void removeFromCart() {
         int[] selectedIndices = cartList.getSelectedIndices();
         if (selectedIndices.length > 0) {
-            List<Album> albumsToRemove = new ArrayList<>();
-            for (int index : selectedIndices) {
-                Album album = cartListModel.getElementAt(index);
-                albumsToRemove.add(album);
-                
-                // Update quantities
-                String title = album.getTitle();
-                int currentQuantity = cartQuantities.getOrDefault(title, 0);
-                if (currentQuantity > 1) {
-                    cartQuantities.put(title, currentQuantity - 1);
-                } else {
-                    cartQuantities.remove(title);
-                }
-            }
-            for (Album album : albumsToRemove) {
-                cartListModel.removeElement(album);
-            }
-            updateTotalLabel();
-            messageLabel.setText("Removed selected items from cart");
+            int removed = cartListModel.removeLines(selectedIndices);
+            messageLabel.setText(String.format("Removed %d items from cart", removed));
         } else {
             messageLabel.setText("Please select items to remove from cart");
         }
@@ -393,45 +468,26 @@ public final class MusicShopGUI extends JFrame {
      * Validates cart contents and completes purchase.
      */
     private void checkout() {
-        if (cartListModel.isEmpty()) {
+        if (cartListModel.getSize() == 0) {
             messageLabel.setText("Cart is empty!");
             return;
         }
 
-        double total = 0;
-        for (int i = 0; i < cartListModel.size(); i++) {
-            Album album = cartListModel.getElementAt(i);
-            total += album.getPrice();
-        }
-        
-        String message = String.format("Thank you for your purchase!%nTotal: $%.2f", total);
+        String message = String.format("Thank you for your purchase!%nTotal: %s", Money.format(cartListModel.getTotalCents()));
         JOptionPane.showMessageDialog(this, message, "Purchase Complete", JOptionPane.INFORMATION_MESSAGE);
         cartListModel.clear();
-        cartQuantities.clear();
-        updateTotalLabel();
         messageLabel.setText("Purchase completed successfully!");
     }
 
     /**
      * Updates the total price display in the cart.
-     * Calculates sum of all items and updates label.
+     * Reads the cart's maintained total and item count instead of re-summing the items.
      */
     private void updateTotalLabel() {
-        double total = 0;
-        for (int i = 0; i < cartListModel.size(); i++) {
-            total += cartListModel.getElementAt(i).getPrice();
-        }
-        totalLabel.setText(String.format("Total: $%.2f (%d items)", total, cartListModel.size()));
-    }
-
-    /**
-     * Constructs the full path to an album cover image.
-     * 
-     * @param imageFileName name of the image file
-     * @return full path to the image file
-     */
-    private String getImagePath(String imageFileName) {
-        return IMAGE_PATH + imageFileName;
+        StringBuilder text = new StringBuilder(32).append("Total: ");
+        Money.appendTo(text, cartListModel.getTotalCents())
+            .append(" (").append(cartListModel.getItemCount()).append(" items)");
+        totalLabel.setText(text.toString());
     }
 
     /**
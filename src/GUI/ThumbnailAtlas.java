@@ -0,0 +1,276 @@
+/**
+ * Prebuilt atlas of album cover thumbnails, read through a memory mapping.
+ * Packs every cover, already scaled to the sizes the GUI shows, into one file
+ * of raw ARGB pixels, so thumbnails are sliced out without any image decoding.
+ *
+ * Key features:
+ * - Built once by a preprocessing step: java GUI.ThumbnailAtlas [imageDir] [atlasFile]
+ * - Opened by mapping the file with FileChannel.map; pixels stay in the page cache
+ * - Thumbnails copied straight into BufferedImage pixel arrays
+ * - Covers missing from the atlas fall back to normal decoding
+ *
+ * File layout (big-endian):
+ * - Header: magic, version, size count, entry count
+ * - Sizes: one int per thumbnail size
+ * - Index: per entry, the UTF-8 file name (short length + bytes), then
+ *   width (short), height (short) and pixel offset (long) for every size
+ * - Pixels: one int (ARGB) per pixel, row by row
+ *
+ * The generated atlas is a build artifact and is not committed.
+ *
+ * @see CoverImageLoader
+ * @see ThumbnailCache
+ */
+package GUI;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ThumbnailAtlas {
+    /** Path to the atlas, relative to the working directory */
+    static final String ATLAS_PATH = "src/resources/covers.atlas";
+
+    /** Directory holding the cover images */
+    private static final String IMAGE_DIRECTORY = "src/resources/images";
+
+    /** Thumbnail sizes packed by default: list cells and the cart preview */
+    private static final int[] DEFAULT_SIZES = {AlbumListCellRenderer.IMAGE_SIZE, MusicShopGUI.PREVIEW_SIZE};
+
+    /** File signature: "MSTA" */
+    private static final int MAGIC = 0x4D535441;
+
+    /** Current file format version */
+    private static final int VERSION = 1;
+
+    /**
+     * Location of one thumbnail in the mapped file.
+     */
+    private static final class Slot {
+        private final int width;
+        private final int height;
+        private final long offset;
+
+        Slot(int width, int height, long offset) {
+            this.width = width;
+            this.height = height;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Lazily opened atlas shared by the GUI; null if no atlas has been built.
+     */
+    private static final class Holder {
+        private static final ThumbnailAtlas SHARED = openShared();
+    }
+
+    /** The mapped atlas file */
+    private final MappedByteBuffer buffer;
+
+    /** Thumbnail locations by size and file name */
+    private final Map<String, Slot> slots;
+
+    private ThumbnailAtlas(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < 16 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a thumbnail atlas file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported thumbnail atlas version " + buffer.getInt(4));
+        }
+        ByteBuffer index = buffer.duplicate();
+        index.position(8);
+        int[] sizes = new int[index.getInt()];
+        int entryCount = index.getInt();
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = index.getInt();
+        }
+        slots = new HashMap<>(entryCount * sizes.length * 2);
+        for (int entry = 0; entry < entryCount; entry++) {
+            byte[] name = new byte[index.getShort() & 0xFFFF];
+            index.get(name);
+            String fileName = new String(name, StandardCharsets.UTF_8);
+            for (int size : sizes) {
+                int width = index.getShort();
+                int height = index.getShort();
+                long offset = index.getLong();
+                if (offset + 4L * width * height > buffer.capacity()) {
+                    throw new IOException("Truncated thumbnail atlas file");
+                }
+                slots.put(key(fileName, size), new Slot(width, height, offset));
+            }
+        }
+    }
+
+    /**
+     * Opens an atlas file read-only.
+     * Only the index is read; pixels are copied when a thumbnail is requested.
+     *
+     * @param file Atlas file
+     * @return The opened atlas
+     * @throws IOException if the file cannot be mapped or is not an atlas
+     */
+    public static ThumbnailAtlas open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ThumbnailAtlas(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Gets the atlas built for the GUI, opening it on first use.
+     *
+     * @return The shared atlas, or null if none has been built
+     */
+    public static ThumbnailAtlas getShared() {
+        return Holder.SHARED;
+    }
+
+    private static ThumbnailAtlas openShared() {
+        Path file = Paths.get(ATLAS_PATH);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("Error loading thumbnail atlas: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String key(String fileName, int size) {
+        return size + ":" + fileName;
+    }
+
+    /**
+     * Copies a thumbnail out of the atlas.
+     *
+     * @param fileName Cover image file name
+     * @param size Thumbnail size in pixels
+     * @return A new image holding the thumbnail, or null if the atlas does not hold it
+     */
+    public BufferedImage getThumbnail(String fileName, int size) {
+        Slot slot = slots.get(key(fileName, size));
+        if (slot == null) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(slot.width, slot.height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        ByteBuffer source = buffer.duplicate();
+        source.position(Math.toIntExact(slot.offset));
+        source.asIntBuffer().get(pixels);
+        return image;
+    }
+
+    /**
+     * Gets the number of thumbnails in the atlas.
+     *
+     * @return Thumbnail count
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Builds an atlas from every readable image in a directory.
+     * Files that cannot be decoded are left out and reported.
+     *
+     * @param imageDirectory Directory holding the cover images
+     * @param file Atlas file to create or replace
+     * @param sizes Thumbnail sizes to pack
+     * @return Number of covers packed
+     * @throws IOException if the directory cannot be listed or the atlas cannot be written
+     */
+    public static int write(Path imageDirectory, Path file, int[] sizes) throws IOException {
+        File[] files = imageDirectory.toFile().listFiles(File::isFile);
+        if (files == null) {
+            throw new IOException("Not a directory: " + imageDirectory);
+        }
+        Arrays.sort(files);
+
+        List<byte[]> names = new ArrayList<>();
+        List<BufferedImage[]> thumbnails = new ArrayList<>();
+        for (File imageFile : files) {
+            BufferedImage[] scaled = new BufferedImage[sizes.length];
+            for (int i = 0; i < sizes.length && (i == 0 || scaled[i - 1] != null); i++) {
+                scaled[i] = CoverImageLoader.decodeThumbnail(imageFile, sizes[i]);
+            }
+            if (scaled[sizes.length - 1] == null) {
+                System.err.println("Skipped unreadable image: " + imageFile.getName());
+                continue;
+            }
+            names.add(imageFile.getName().getBytes(StandardCharsets.UTF_8));
+            thumbnails.add(scaled);
+        }
+
+        int indexSize = 16 + sizes.length * Integer.BYTES;
+        for (byte[] name : names) {
+            indexSize += Short.BYTES + name.length + sizes.length * (2 * Short.BYTES + Long.BYTES);
+        }
+        ByteBuffer index = ByteBuffer.allocate(indexSize);
+        index.putInt(MAGIC).putInt(VERSION).putInt(sizes.length).putInt(names.size());
+        for (int size : sizes) {
+            index.putInt(size);
+        }
+        long offset = indexSize;
+        for (int entry = 0; entry < names.size(); entry++) {
+            index.putShort((short) names.get(entry).length).put(names.get(entry));
+            for (BufferedImage thumbnail : thumbnails.get(entry)) {
+                index.putShort((short) thumbnail.getWidth()).putShort((short) thumbnail.getHeight()).putLong(offset);
+                offset += 4L * thumbnail.getWidth() * thumbnail.getHeight();
+            }
+        }
+        index.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, index);
+            for (BufferedImage[] scaled : thumbnails) {
+                for (BufferedImage thumbnail : scaled) {
+                    int[] pixels = thumbnail.getRGB(0, 0, thumbnail.getWidth(), thumbnail.getHeight(),
+                            null, 0, thumbnail.getWidth());
+                    ByteBuffer data = ByteBuffer.allocate(pixels.length * Integer.BYTES);
+                    data.asIntBuffer().put(pixels);
+                    writeFully(channel, data);
+                }
+            }
+        }
+        return names.size();
+    }
+
+    /**
+     * Command line entry point building the GUI's atlas.
+     *
+     * @param args Optional image directory and atlas file
+     * @throws IOException if the atlas cannot be built
+     */
+    public static void main(String[] args) throws IOException {
+        Path imageDirectory = Paths.get(args.length > 0 ? args[0] : IMAGE_DIRECTORY);
+        Path file = Paths.get(args.length > 1 ? args[1] : ATLAS_PATH);
+        int count = write(imageDirectory, file, DEFAULT_SIZES);
+        System.out.println("Packed " + count + " covers at sizes " + Arrays.toString(DEFAULT_SIZES)
+                + " into " + file + " (" + Files.size(file) / 1024 + " KB)");
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
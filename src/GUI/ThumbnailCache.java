@@ -0,0 +1,283 @@
+/**
+ * Memory-bounded cache of scaled album cover thumbnails.
+ * Lets list renderers repaint covers without touching the disk or the image decoder.
+ *
+ * Key features:
+ * - Keyed by image file name and target size
+ * - LRU eviction against a byte budget (4 bytes per pixel)
+ * - Evicted thumbnails kept through soft references until memory runs low
+ * - Failed loads cached too, so missing files are not retried on every repaint
+ * - Hit, soft hit, miss and eviction statistics
+ *
+ * Design Pattern: Singleton Pattern
+ * - One cache shared by every renderer, so each cover is decoded once per size
+ *
+ * @see AlbumListCellRenderer
+ */
+package GUI;
+
+import javax.swing.*;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public final class ThumbnailCache {
+    /** Memory budget of the shared cache */
+    private static final long DEFAULT_BUDGET_BYTES = 32L * 1024 * 1024;
+
+    /** Bookkeeping cost charged for every entry, including empty ones */
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    /**
+     * Cache key: an image file at a target size.
+     */
+    private static final class Key {
+        private final String fileName;
+        private final int size;
+
+        Key(String fileName, int size) {
+            this.fileName = fileName;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return size == other.size && fileName.equals(other.fileName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fileName, size);
+        }
+    }
+
+    /**
+     * Soft reference to an evicted thumbnail that remembers its key,
+     * so cleared references can be purged from the fallback map.
+     */
+    private static final class SoftEntry extends SoftReference<ImageIcon> {
+        private final Key key;
+
+        SoftEntry(Key key, ImageIcon icon, ReferenceQueue<ImageIcon> queue) {
+            super(icon, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Lazily initialized holder for the shared cache.
+     */
+    private static final class Holder {
+        private static final ThumbnailCache INSTANCE = new ThumbnailCache(DEFAULT_BUDGET_BYTES);
+    }
+
+    /** Maximum bytes held by strongly referenced thumbnails */
+    private final long budgetBytes;
+
+    /** Strongly referenced thumbnails, least recently used first */
+    private final LinkedHashMap<Key, ImageIcon> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** Evicted thumbnails the garbage collector has not reclaimed yet */
+    private final Map<Key, SoftEntry> evicted = new HashMap<>();
+
+    /** Queue of cleared soft references */
+    private final ReferenceQueue<ImageIcon> clearedQueue = new ReferenceQueue<>();
+
+    /** Bytes held by strongly referenced thumbnails */
+    private long usedBytes;
+
+    /** Statistics */
+    private long hits;
+    private long softHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param budgetBytes Maximum bytes held by strongly referenced thumbnails
+     */
+    public ThumbnailCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Gets the cache shared by every renderer.
+     *
+     * @return The shared thumbnail cache
+     */
+    public static ThumbnailCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Looks up a thumbnail.
+     *
+     * @param fileName Image file name
+     * @param size Target size in pixels
+     * @return The cached thumbnail, or null if it has to be loaded
+     */
+    public synchronized ImageIcon get(String fileName, int size) {
+        purgeCleared();
+        Key key = new Key(fileName, size);
+        ImageIcon icon = entries.get(key);
+        if (icon != null) {
+            hits++;
+            return icon;
+        }
+        SoftEntry softEntry = evicted.remove(key);
+        icon = softEntry == null ? null : softEntry.get();
+        if (icon != null) {
+            softHits++;
+            insert(key, icon);
+            return icon;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Checks whether a thumbnail is cached, without counting a hit or miss
+     * and without marking it as recently used.
+     *
+     * @param fileName Image file name
+     * @param size Target size in pixels
+     * @return true if the thumbnail is held, strongly or softly
+     */
+    public synchronized boolean contains(String fileName, int size) {
+        purgeCleared();
+        Key key = new Key(fileName, size);
+        if (entries.containsKey(key)) {
+            return true;
+        }
+        SoftEntry softEntry = evicted.get(key);
+        return softEntry != null && softEntry.get() != null;
+    }
+
+    /**
+     * Adds a thumbnail, evicting the least recently used ones if the budget is exceeded.
+     *
+     * @param fileName Image file name
+     * @param size Target size in pixels
+     * @param icon Loaded thumbnail; an empty icon records a failed load
+     */
+    public synchronized void put(String fileName, int size, ImageIcon icon) {
+        purgeCleared();
+        Key key = new Key(fileName, size);
+        evicted.remove(key);
+        insert(key, icon);
+    }
+
+    private void insert(Key key, ImageIcon icon) {
+        ImageIcon previous = entries.put(key, icon);
+        if (previous != null) {
+            usedBytes -= cost(previous);
+        }
+        usedBytes += cost(icon);
+
+        Iterator<Map.Entry<Key, ImageIcon>> eldest = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && entries.size() > 1) {
+            Map.Entry<Key, ImageIcon> entry = eldest.next();
+            eldest.remove();
+            usedBytes -= cost(entry.getValue());
+            evicted.put(entry.getKey(), new SoftEntry(entry.getKey(), entry.getValue(), clearedQueue));
+            evictions++;
+        }
+    }
+
+    private void purgeCleared() {
+        SoftEntry cleared;
+        while ((cleared = (SoftEntry) clearedQueue.poll()) != null) {
+            evicted.remove(cleared.key, cleared);
+        }
+    }
+
+    private static long cost(ImageIcon icon) {
+        return ENTRY_OVERHEAD_BYTES + 4L * Math.max(icon.getIconWidth(), 0) * Math.max(icon.getIconHeight(), 0);
+    }
+
+    /**
+     * Removes every thumbnail from the cache. Statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        evicted.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Gets the number of lookups answered from strongly referenced thumbnails.
+     *
+     * @return Hit count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups answered from evicted, softly referenced thumbnails.
+     *
+     * @return Soft hit count
+     */
+    public synchronized long getSoftHitCount() {
+        return softHits;
+    }
+
+    /**
+     * Gets the number of lookups that required a load.
+     *
+     * @return Miss count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of thumbnails evicted to stay within the budget.
+     *
+     * @return Eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Gets the bytes held by strongly referenced thumbnails.
+     *
+     * @return Used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Gets the memory budget of the cache.
+     *
+     * @return Budget in bytes
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Creates a summary of the cache statistics.
+     *
+     * @return Statistics, e.g. "hits=120 softHits=3 misses=25 evictions=0 used=1.2/32.0 MB"
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("hits=%d softHits=%d misses=%d evictions=%d used=%.1f/%.1f MB",
+                hits, softHits, misses, evictions, usedBytes / 1048576.0, budgetBytes / 1048576.0);
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Interface for components that react to changes of a shopping cart.
+ * Notified once per cart operation, however many units or lines it touched.
+ *
+ * Key features:
+ * - One notification per add, remove or clear, after the cart is consistent
+ * - Lets views read the maintained total and item count instead of recounting
+ *
+ * Design Pattern: Observer Pattern
+ * - Cart views subscribe to the cart's list model
+ *
+ * @see ShoppingCart
+ * @see CartListModel
+ */
+package Interfaces;
+
+import Model.ShoppingCart;
+
+public interface CartListener {
+    /**
+     * Called after the cart has changed.
+     *
+     * @param cart The cart that changed
+     */
+    void cartChanged(ShoppingCart cart);
+}
@@ -0,0 +1,30 @@
+/**
+ * Interface defining how the price of an album format variant is determined.
+ * Implemented by the shop's pricing rules.
+ * 
+ * Key features:
+ * - Derives format prices from an album's list price
+ * - Keeps pricing rules out of the product and GUI classes
+ * 
+ * Design Pattern: Strategy Pattern
+ * - Pricing rules can be replaced without touching the catalog
+ * 
+ * @see FormatVariant
+ * @see PricingEngine
+ * @see Format
+ */
+package Interfaces;
+
+import Enums.Format;
+import Model.Album;
+
+public interface PricingPolicy {
+    /**
+     * Gets the price of an album in a given format.
+     * 
+     * @param album Album whose list price the rules are based on
+     * @param format Format being sold
+     * @return Price in cents
+     */
+    long priceOf(Album album, Format format);
+}
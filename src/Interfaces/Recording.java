@@ -0,0 +1,65 @@
+/**
+ * Interface describing a music recording held in the shop's catalog.
+ * Implemented by every product that carries a title, an artist and a genre.
+ *
+ * Key features:
+ * - Common view over albums and CDs
+ * - Lets catalog indexes work without knowing the concrete product type
+ * - Registry ids for titles and artists, so comparisons are int comparisons
+ *
+ * @see Album
+ * @see CD
+ * @see CatalogRepository
+ * @see NameRegistry
+ */
+package Interfaces;
+
+import Enums.Genre;
+
+public interface Recording {
+    /**
+     * Gets the title of the recording.
+     *
+     * @return The recording title
+     */
+    String getTitle();
+
+    /**
+     * Gets the artist of the recording.
+     *
+     * @return The artist/band name
+     */
+    String getArtist();
+
+    /**
+     * Gets the musical genre of the recording.
+     *
+     * @return The recording's genre
+     */
+    Genre getGenre();
+
+    /**
+     * Gets the registry id of the recording's title.
+     *
+     * @return The title id
+     */
+    int getTitleId();
+
+    /**
+     * Gets the registry id of the recording's artist.
+     *
+     * @return The artist id
+     */
+    int getArtistId();
+
+    /**
+     * Checks whether another recording has the same title and artist,
+     * for example the vinyl and CD releases of the same album.
+     *
+     * @param other Recording to compare with
+     * @return true if title and artist are the same
+     */
+    default boolean isSameRecording(Recording other) {
+        return getTitleId() == other.getTitleId() && getArtistId() == other.getArtistId();
+    }
+}
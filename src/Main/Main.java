@@ -1,13 +1,13 @@
 package Main;
 
-import Enums.Genre;
 import Model.Album;
 import Model.CD;
+import Model.CatalogRepository;
 import Model.Customer;
-import Model.Product;
+import Model.LineItem;
+import Model.Money;
 import Model.ShoppingCart;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,9 +28,10 @@ public final class Main {
     public static void main(String[] args) {
         System.out.println("\n=== Music Store Management System ===\n");
 
-        // Initialize available albums and CDs
-        List<Album> availableAlbums = initializeAlbums();
-        List<CD> availableCDs = initializeCDs();
+        // Load available albums and CDs from the shared catalog
+        CatalogRepository catalog = CatalogRepository.getInstance();
+        List<Album> availableAlbums = catalog.getAlbums();
+        List<CD> availableCDs = catalog.getCDs();
 
         // Display available inventory to the user
         System.out.println("Available Albums:");
@@ -59,44 +60,6 @@ public final class Main {
         System.out.println("\n=== End of Program ===\n");
     }
 
-    private static List<Album> initializeAlbums() {
-        List<Album> albums = new ArrayList<>();
-        albums.add(new Album("Greatest Hits", "Queen", Genre.ROCK, 29.99, "queen.jpg"));
-        albums.add(new Album("Thriller", "Michael Jackson", Genre.POP, 24.99, "thriller.jpg"));
-        albums.add(new Album("Dark Side of the Moon", "Pink Floyd", Genre.ROCK, 19.99, "dark_side.jpg"));
-        albums.add(new Album("Back in Black", "AC/DC", Genre.ROCK, 21.99, "back_in_black.jpg")); 
-        albums.add(new Album("21", "Adele", Genre.POP, 18.99, "adele_21.jpg"));
-        albums.add(new Album("The Rise and Fall Of A Midwest Princess", "Chappell Roan", Genre.POP, 35.50, "chappellRoan.jpeg"));
-        albums.add(new Album("Hypnotize", "System of A Down", Genre.ROCK, 25.00, "SOAD.jpeg"));
-        albums.add(new Album("In Utero", "Nirvana", Genre.ROCK, 22.00, "nirvana.jpg"));
-        albums.add(new Album("Born This Way (Signed Edition)", "Lady Gaga", Genre.POP, 25.00, "ladygaga.jpg"));
-        albums.add(new Album("The Marshall Mathers LP", "Eminem", Genre.RAP, 20.00, "eminem.png"));
-        albums.add(new Album("OK Computer", "Radiohead", Genre.ROCK, 15.00, "radiohead.jpeg"));
-        albums.add(new Album("Mellie Collie and The Infinite Sadness", "The Smashing Pumpkins", Genre.ROCK, 19.99, "smashingpumpkins.jpg"));
-        albums.add(new Album("Doolittle", "Pixies", Genre.ROCK, 15.00, "pixies.jpg"));
-        albums.add(new Album("Speak for Yourself", "Imogen Heap", Genre.ELECTRONIC, 18.00, "imogenheap.jpg"));
-        albums.add(new Album("Grace", "Jeff Buckley", Genre.ROCK, 15.00, "jeffbuckley.jpeg"));
-        albums.add(new Album("Weezer (Blue Album)", "Weezer", Genre.ROCK, 15.00, "weezer.jpg"));
-        albums.add(new Album("The White Album", "The Beatles", Genre.ROCK, 15.00, "thebeatles.png"));
-        albums.add(new Album("Graduation", "Kanye West", Genre.RAP, 15.00, "kanyewest.jpg"));
-        albums.add(new Album("The Colour and the Shape", "Foo Fighters", Genre.ROCK, 23.99, "foofighters.jpeg"));
-        albums.add(new Album("Rumours", "Fleetwood Mac", Genre.ROCK, 22.99, "fleetwoodmac.jpeg"));
-        albums.add(new Album("Blue", "Joni Mitchell", Genre.FOLK, 15.00, "jonimitchell.jpg"));
-        albums.add(new Album("Goo", "Sonic Youth", Genre.ROCK, 15.00, "sonicyouth.png"));
-        albums.add(new Album("Tidal", "Fiona Apple", Genre.POP, 15.00, "fionaapple.jpg"));
-        albums.add(new Album("Dreaming", "Andre Rieu", Genre.CLASSICAL, 15.00, "andrerieu.jpg"));
-        albums.add(new Album("Come Away With Me", "Norah Jones", Genre.JAZZ, 15.00, "norahjones.jpg"));
-        return albums;
-    }
-
-    private static List<CD> initializeCDs() {
-        List<CD> cds = new ArrayList<>();
-        cds.add(new CD("OK Computer", "Radiohead", Genre.ROCK, 19.99, "ok_computer.jpg", 12, "53:21"));
-        cds.add(new CD("Blue", "Joni Mitchell", Genre.FOLK, 15.99, "blue.jpg", 10, "35:41"));
-        cds.add(new CD("Kind of Blue", "Miles Davis", Genre.JAZZ, 17.99, "kind_of_blue.jpg", 5, "45:44"));
-        return cds;
-    }
-
     private static Customer createCustomer() {
         Customer customer = new Customer("CUST001", "John Doe");
         System.out.println("\nCustomer Created: " + customer.getCustomerId() + " - " + "John Doe");
@@ -109,16 +72,18 @@ public final class Main {
     }
 
     private static void generateReceipt(Customer customer) {
-        double total = 0;
+        ShoppingCart cart = customer.getCart();
         System.out.println("\nPurchase Receipt:");
         System.out.println("----------------");
         System.out.println("Customer: " + customer.getName() + " (" + customer.getCustomerId() + ")");
         System.out.println("\nItems purchased:");
-        for (Product item : customer.getCart().getItems()) {
-            System.out.println("- " + item.getName() + " ($" + String.format("%.2f", item.getPrice()) + ")");
-            total += item.getPrice();
+        for (LineItem line : cart.getLineItems()) {
+            for (int i = 0; i < line.getQuantity(); i++) {
+                System.out.println("- " + line.getProduct().getName() + " (" + Money.format(line.getUnitPriceCents()) + ")");
+            }
         }
-        System.out.println("\nTotal Amount: $" + String.format("%.2f", total));
+        // The cart's running total, so the receipt can never disagree with the cart
+        System.out.println("\nTotal Amount: " + Money.format(cart.getTotal()));
         System.out.println("----------------");
     }
 }
@@ -4,27 +4,31 @@
  * 
  * Key features:
  * - Stores artist and genre information
- * - Supports both vinyl and CD formats
+ * - Single product record shared by all of its formats
  * - Implements purchase and return functionality
- * - Provides format-specific pricing (CD prices are 40% of vinyl)
+ * - Holds the list price that format prices are derived from
  * 
  * Design Pattern: Strategy Pattern
- * - Different pricing strategies for vinyl vs CD formats
+ * - Format prices come from a pluggable PricingPolicy
  * - Flexible implementation for future format additions
  * 
  * @see Product
+ * @see FormatVariant
  * @see Genre
  */
 package Model;
 
+import Enums.Format;
 import Enums.Genre;
+import Interfaces.Recording;
 
-public class Album extends Product {
+public class Album extends Product implements Recording {
     /**
      * The artist who created the album.
-     * Stores the name of the musician or band.
+     * Stores the registry id of the musician or band's name.
+     * @see NameRegistry
      */
-    private String artist;
+    private final int artistId;
     
     /**
      * The musical genre of the album.
@@ -33,18 +37,32 @@ public class Album extends Product {
      */
     private Genre genre;
 
+    /**
+     * Format variants of this album, indexed by format ordinal.
+     * Created on first request so albums that are never sold stay small.
+     * @see FormatVariant
+     */
+    private FormatVariant[] variants;
+
+    /**
+     * Position of the album in its catalog, or -1 if it is not registered.
+     * Indexes the catalog's column store and price tables.
+     * @see CatalogRepository
+     */
+    private int catalogRow = -1;
+
     /**
      * Constructs a new Album instance.
      * 
      * @param title The title of the album
      * @param artist The artist/band name
      * @param genre The musical genre
-     * @param price The price (full price for vinyl, 40% for CD)
+     * @param priceCents The list price in cents (the vinyl price)
      * @param imageFileName The album cover image file
      */
-    public Album(String title, String artist, Genre genre, double price, String imageFileName) {
-        super(title, price, imageFileName);
-        this.artist = artist;
+    public Album(String title, String artist, Genre genre, long priceCents, String imageFileName) {
+        super(title, priceCents, imageFileName);
+        this.artistId = NameRegistry.getInstance().intern(artist);
         this.genre = genre;
     }
 
@@ -54,6 +72,7 @@ public class Album extends Product {
      * 
      * @return The album title
      */
+    @Override
     public String getTitle() {
         return getName();
     }
@@ -63,8 +82,29 @@ public class Album extends Product {
      * 
      * @return The artist/band name
      */
+    @Override
     public String getArtist() {
-        return artist;
+        return NameRegistry.getInstance().name(artistId);
+    }
+
+    /**
+     * Gets the registry id of the album's title.
+     * 
+     * @return The title id
+     */
+    @Override
+    public int getTitleId() {
+        return getNameId();
+    }
+
+    /**
+     * Gets the registry id of the album's artist.
+     * 
+     * @return The artist id
+     */
+    @Override
+    public int getArtistId() {
+        return artistId;
     }
 
     /**
@@ -73,10 +113,49 @@ public class Album extends Product {
      * @return The album's genre
      * @see Genre
      */
+    @Override
     public Genre getGenre() {
         return genre;
     }
 
+    /**
+     * Gets the position of the album in its catalog.
+     * 
+     * @return Catalog row, or -1 if the album is not registered in a catalog
+     */
+    public int getCatalogRow() {
+        return catalogRow;
+    }
+
+    /**
+     * Records the position of the album in its catalog.
+     * 
+     * @param catalogRow Catalog row assigned at registration
+     */
+    void setCatalogRow(int catalogRow) {
+        this.catalogRow = catalogRow;
+    }
+
+    /**
+     * Gets the variant of this album in a given format, creating it on first use.
+     * The same variant instance is returned on every call.
+     * 
+     * @param format The format being sold
+     * @param catalog The catalog that prices the variant
+     * @return The format variant
+     */
+    synchronized FormatVariant variant(Format format, CatalogRepository catalog) {
+        if (variants == null) {
+            variants = new FormatVariant[Format.values().length];
+        }
+        FormatVariant variant = variants[format.ordinal()];
+        if (variant == null) {
+            variant = new FormatVariant(this, format, catalog);
+            variants[format.ordinal()] = variant;
+        }
+        return variant;
+    }
+
     /**
      * Creates a string representation of the album.
      * Format: "Title - Artist (Genre) ($Price)"
@@ -85,7 +164,7 @@ public class Album extends Product {
      */
     @Override
     public String toString() {
-        return getTitle() + " - " + artist + " (" + genre + ") ($" + getPrice() + ")";
+        return getTitle() + " - " + getArtist() + " (" + genre + ") (" + Money.format(getPriceCents()) + ")";
     }
 
     /**
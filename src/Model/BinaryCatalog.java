@@ -0,0 +1,516 @@
+/**
+ * Read-only, memory-mapped binary catalog file.
+ * Stores the catalog as fixed-width columns plus a dictionary-encoded string pool.
+ *
+ * Key features:
+ * - Opens in constant time by mapping the file with FileChannel.map
+ * - Keeps catalog data off-heap in the page cache
+ * - Each distinct title, artist, image name and duration is stored once
+ * - Products are created lazily, only for the rows that are requested
+ * - Column scans by title, artist and image name without creating products
+ * - Records the size and modification time of the CSV file it was built from,
+ *   so an outdated binary catalog is never served
+ *
+ * File layout (big-endian):
+ * - Header: magic, version, row count, string count, album count,
+ *   source file size and source modification time (millis)
+ * - Rows: every album first, then every CD, each in catalog order
+ * - Price column: one long (cents) per row
+ * - Title, artist, image and duration columns: one string id (int) per row
+ * - Track column: one short per row
+ * - Type and genre columns: one byte per row
+ * - String offset table: string count + 1 ints, relative to the pool start
+ * - String pool: UTF-8 bytes of every distinct string
+ *
+ * Design Pattern: Flyweight Pattern
+ * - Rows share pooled strings instead of holding their own copies
+ *
+ * @see CatalogLoader
+ * @see CatalogRepository
+ */
+package Model;
+
+import Enums.Genre;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public final class BinaryCatalog {
+    /** File signature: "MSCB" */
+    private static final int MAGIC = 0x4D534342;
+
+    /** Current file format version */
+    private static final int VERSION = 2;
+
+    /** Size of the file header in bytes, padded so the price column is 8-byte aligned */
+    private static final int HEADER_SIZE = 40;
+
+    /** Row type marker for albums */
+    private static final byte TYPE_ALBUM = 0;
+
+    /** Row type marker for CDs */
+    private static final byte TYPE_CD = 1;
+
+    /** String id used for absent values */
+    private static final int NO_STRING = -1;
+
+    /** Cached genre constants, indexed by ordinal */
+    private static final Genre[] GENRES = Genre.values();
+
+    /** Mapped file contents */
+    private final MappedByteBuffer buffer;
+
+    /** Number of products in the catalog */
+    private final int rowCount;
+
+    /** Number of pooled strings */
+    private final int stringCount;
+
+    /** Number of album rows; they precede the CD rows */
+    private final int albumCount;
+
+    /** Size of the CSV file the catalog was built from, or -1 if unknown */
+    private final long sourceSize;
+
+    /** Modification time of the CSV file the catalog was built from, in millis, or -1 if unknown */
+    private final long sourceModified;
+
+    /** Start offsets of every section of the file */
+    private final int priceColumn;
+    private final int titleColumn;
+    private final int artistColumn;
+    private final int imageColumn;
+    private final int durationColumn;
+    private final int trackColumn;
+    private final int typeColumn;
+    private final int genreColumn;
+    private final int stringOffsets;
+    private final int stringPool;
+
+    private BinaryCatalog(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary catalog file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary catalog version " + buffer.getInt(4));
+        }
+        rowCount = buffer.getInt(8);
+        stringCount = buffer.getInt(12);
+        albumCount = buffer.getInt(16);
+        sourceSize = buffer.getLong(20);
+        sourceModified = buffer.getLong(28);
+        if (albumCount < 0 || albumCount > rowCount) {
+            throw new IOException("Corrupt binary catalog header");
+        }
+
+        priceColumn = HEADER_SIZE;
+        titleColumn = priceColumn + rowCount * Long.BYTES;
+        artistColumn = titleColumn + rowCount * Integer.BYTES;
+        imageColumn = artistColumn + rowCount * Integer.BYTES;
+        durationColumn = imageColumn + rowCount * Integer.BYTES;
+        trackColumn = durationColumn + rowCount * Integer.BYTES;
+        typeColumn = trackColumn + rowCount * Short.BYTES;
+        genreColumn = typeColumn + rowCount;
+        stringOffsets = genreColumn + rowCount;
+        stringPool = stringOffsets + (stringCount + 1) * Integer.BYTES;
+        if (stringPool > buffer.capacity()) {
+            throw new IOException("Truncated binary catalog file");
+        }
+    }
+
+    /**
+     * Opens a binary catalog file read-only.
+     * Only the header is read; rows are decoded when they are requested.
+     *
+     * @param file Binary catalog file
+     * @return The opened catalog
+     * @throws IOException if the file cannot be mapped or is not a binary catalog
+     */
+    public static BinaryCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new BinaryCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes products to a binary catalog file that is not built from a CSV file.
+     * Only albums and CDs are written; other products are skipped.
+     *
+     * @param file File to create or replace
+     * @param products Products to write, in catalog order
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, List<? extends Product> products) throws IOException {
+        write(file, products, null);
+    }
+
+    /**
+     * Writes products to a binary catalog file, recording the CSV file they were read from.
+     * Only albums and CDs are written; other products are skipped. Albums are
+     * written before CDs, each in catalog order.
+     *
+     * @param file File to create or replace
+     * @param products Products to write, in catalog order
+     * @param source CSV file the products were read from, or null if there is none
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, List<? extends Product> products, Path source) throws IOException {
+        List<Product> rows = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product instanceof Album) {
+                rows.add(product);
+            }
+        }
+        int albums = rows.size();
+        for (Product product : products) {
+            if (product instanceof CD) {
+                rows.add(product);
+            }
+        }
+        long sourceSize = source == null ? -1 : Files.size(source);
+        long sourceModified = source == null ? -1 : Files.getLastModifiedTime(source).toMillis();
+
+        int count = rows.size();
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> pool = new ArrayList<>();
+        ByteBuffer columns = ByteBuffer.allocate(count * (Long.BYTES + 4 * Integer.BYTES + Short.BYTES + 2));
+        int[][] ids = new int[4][count];
+        for (int row = 0; row < count; row++) {
+            Product product = rows.get(row);
+            boolean isCD = product instanceof CD;
+            String artist = isCD ? ((CD) product).getArtist() : ((Album) product).getArtist();
+            ids[0][row] = intern(product.getName(), dictionary, pool);
+            ids[1][row] = intern(artist, dictionary, pool);
+            ids[2][row] = intern(product.getImageFileName(), dictionary, pool);
+            ids[3][row] = isCD ? intern(((CD) product).getDuration(), dictionary, pool) : NO_STRING;
+        }
+
+        for (Product product : rows) {
+            columns.putLong(product.getPriceCents());
+        }
+        for (int[] column : ids) {
+            for (int id : column) {
+                columns.putInt(id);
+            }
+        }
+        for (Product product : rows) {
+            columns.putShort(product instanceof CD ? (short) ((CD) product).getNumberOfTracks() : 0);
+        }
+        for (Product product : rows) {
+            columns.put(product instanceof CD ? TYPE_CD : TYPE_ALBUM);
+        }
+        for (Product product : rows) {
+            Genre genre = product instanceof CD ? ((CD) product).getGenre() : ((Album) product).getGenre();
+            columns.put((byte) genre.ordinal());
+        }
+        columns.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + (pool.size() + 1) * Integer.BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(pool.size()).putInt(albums)
+                .putLong(sourceSize).putLong(sourceModified);
+        header.position(HEADER_SIZE);
+        int offset = 0;
+        for (byte[] bytes : pool) {
+            header.putInt(offset);
+            offset += bytes.length;
+        }
+        header.putInt(offset);
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // The string offsets follow the columns, so write the fixed header part first
+            ByteBuffer fixedHeader = header.duplicate();
+            fixedHeader.limit(HEADER_SIZE);
+            writeFully(channel, fixedHeader);
+            writeFully(channel, columns);
+            header.position(HEADER_SIZE);
+            writeFully(channel, header);
+            for (byte[] bytes : pool) {
+                writeFully(channel, ByteBuffer.wrap(bytes));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of products in the catalog.
+     *
+     * @return Row count
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of album rows. Rows 0 to getAlbumCount() - 1 are albums,
+     * the remaining rows are CDs.
+     *
+     * @return Album row count
+     */
+    public int getAlbumCount() {
+        return albumCount;
+    }
+
+    /**
+     * Checks whether this catalog was built from the current version of a CSV file.
+     * The file's size and modification time must match the ones recorded when
+     * the catalog was written.
+     *
+     * @param source CSV file to compare with
+     * @return true if the catalog reflects the file as it is now
+     * @throws IOException if the file's attributes cannot be read
+     */
+    public boolean isBuiltFrom(Path source) throws IOException {
+        return sourceSize >= 0 && sourceSize == Files.size(source)
+                && sourceModified == Files.getLastModifiedTime(source).toMillis();
+    }
+
+    /**
+     * Creates the product stored in a row.
+     * A new Album or CD is decoded on every call.
+     *
+     * @param row Row index, from 0 to size() - 1
+     * @return The product stored in the row
+     * @throws IndexOutOfBoundsException if the row does not exist
+     */
+    public Product getProduct(int row) {
+        String title = getTitle(row);
+        String artist = getArtist(row);
+        Genre genre = getGenre(row);
+        long priceCents = getPriceCents(row);
+        String image = string(buffer.getInt(imageColumn + checkRow(row) * Integer.BYTES));
+        if (buffer.get(typeColumn + row) == TYPE_CD) {
+            return new CD(title, artist, genre, priceCents, image, buffer.getShort(trackColumn + row * Short.BYTES),
+                    string(buffer.getInt(durationColumn + row * Integer.BYTES)));
+        }
+        return new Album(title, artist, genre, priceCents, image);
+    }
+
+    /**
+     * Gets the title stored in a row without creating a product.
+     *
+     * @param row Row index
+     * @return Title of the product
+     */
+    public String getTitle(int row) {
+        return string(buffer.getInt(titleColumn + checkRow(row) * Integer.BYTES));
+    }
+
+    /**
+     * Gets the artist stored in a row without creating a product.
+     *
+     * @param row Row index
+     * @return Artist of the product
+     */
+    public String getArtist(int row) {
+        return string(buffer.getInt(artistColumn + checkRow(row) * Integer.BYTES));
+    }
+
+    /**
+     * Gets the genre stored in a row without creating a product.
+     *
+     * @param row Row index
+     * @return Genre of the product
+     */
+    public Genre getGenre(int row) {
+        return GENRES[buffer.get(genreColumn + checkRow(row))];
+    }
+
+    /**
+     * Gets the price stored in a row without creating a product.
+     *
+     * @param row Row index
+     * @return Price in cents
+     */
+    public long getPriceCents(int row) {
+        return buffer.getLong(priceColumn + checkRow(row) * Long.BYTES);
+    }
+
+    /**
+     * Gets the cover image file name stored in a row without creating a product.
+     *
+     * @param row Row index
+     * @return Image file name of the product
+     */
+    public String getImageFileName(int row) {
+        return string(buffer.getInt(imageColumn + checkRow(row) * Integer.BYTES));
+    }
+
+    /**
+     * Gets every distinct cover image file name, decoding each pooled string once.
+     *
+     * @return Image file names of the catalog
+     */
+    public Set<String> getImageFileNames() {
+        BitSet ids = new BitSet(stringCount);
+        for (int row = 0; row < rowCount; row++) {
+            int id = buffer.getInt(imageColumn + row * Integer.BYTES);
+            if (id != NO_STRING) {
+                ids.set(id);
+            }
+        }
+        Set<String> names = new HashSet<>();
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            names.add(string(id));
+        }
+        return names;
+    }
+
+    /**
+     * Finds the rows whose title matches, decoding each pooled string at most once.
+     *
+     * @param matcher Test applied to the distinct titles
+     * @return Matching rows, in row order
+     */
+    public int[] findRowsByTitle(Predicate<String> matcher) {
+        return findRows(titleColumn, matcher);
+    }
+
+    /**
+     * Finds the rows whose artist matches, decoding each pooled string at most once.
+     *
+     * @param matcher Test applied to the distinct artists
+     * @return Matching rows, in row order
+     */
+    public int[] findRowsByArtist(Predicate<String> matcher) {
+        return findRows(artistColumn, matcher);
+    }
+
+    /**
+     * Finds the rows whose cover image file name matches, decoding each pooled string at most once.
+     *
+     * @param matcher Test applied to the distinct image file names
+     * @return Matching rows, in row order
+     */
+    public int[] findRowsByImageFileName(Predicate<String> matcher) {
+        return findRows(imageColumn, matcher);
+    }
+
+    /**
+     * Gets the pool id of the title stored in a row.
+     *
+     * @param row Row index
+     * @return String id of the title
+     */
+    int getTitleStringId(int row) {
+        return buffer.getInt(titleColumn + checkRow(row) * Integer.BYTES);
+    }
+
+    /**
+     * Gets the pool id of the artist stored in a row.
+     *
+     * @param row Row index
+     * @return String id of the artist
+     */
+    int getArtistStringId(int row) {
+        return buffer.getInt(artistColumn + checkRow(row) * Integer.BYTES);
+    }
+
+    /**
+     * Gets the number of pooled strings; string ids range from 0 to this count - 1.
+     *
+     * @return String count
+     */
+    int getStringCount() {
+        return stringCount;
+    }
+
+    /**
+     * Converts a CSV catalog into a binary catalog file.
+     *
+     * @param args CSV input path and binary output path
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: BinaryCatalog <catalog.csv> <catalog.bin>");
+            return;
+        }
+        CatalogRepository repository = new CatalogRepository();
+        CatalogLoader loader = repository.importCatalog(Paths.get(args[0]));
+        write(Paths.get(args[1]), repository.getAllProducts(), Paths.get(args[0]));
+        System.out.println("Wrote " + repository.size() + " products (" + loader.getRejectedCount()
+                + " malformed and " + loader.getDuplicateCount() + " duplicate rows skipped) to " + args[1]);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range 0-" + (rowCount - 1));
+        }
+        return row;
+    }
+
+    private int[] findRows(int column, Predicate<String> matcher) {
+        // 0 = not decoded yet, 1 = no match, 2 = match
+        byte[] verdicts = new byte[stringCount];
+        int[] rows = new int[16];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int id = buffer.getInt(column + row * Integer.BYTES);
+            if (id == NO_STRING) {
+                continue;
+            }
+            if (verdicts[id] == 0) {
+                verdicts[id] = (byte) (matcher.test(string(id)) ? 2 : 1);
+            }
+            if (verdicts[id] == 2) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                }
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Decodes a pooled string.
+     *
+     * @param id String id
+     * @return The string, or null for the absent-value id
+     */
+    String string(int id) {
+        if (id == NO_STRING) {
+            return null;
+        }
+        int start = buffer.getInt(stringOffsets + id * Integer.BYTES);
+        int end = buffer.getInt(stringOffsets + (id + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringPool + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int intern(String value, Map<String, Integer> dictionary, List<byte[]> pool) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        return dictionary.computeIfAbsent(value, v -> {
+            pool.add(v.getBytes(StandardCharsets.UTF_8));
+            return pool.size() - 1;
+        });
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
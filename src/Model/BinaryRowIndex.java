@@ -0,0 +1,152 @@
+/**
+ * Index from the strings of one binary catalog column to the rows holding them.
+ * Built in one pass over the column's fixed-width string ids when a binary
+ * catalog is imported, so title and artist lookups never scan the catalog.
+ *
+ * Key features:
+ * - Each distinct pooled string decoded and normalized once, while building
+ * - String ids that normalize to the same key share one list of rows
+ * - Open-addressing (linear probing) table of key hashes, no per-key heap objects
+ * - Rows of every key packed into one int array, in row order
+ * - O(1) expected lookup of a key's rows
+ *
+ * @see BinaryCatalog
+ * @see CatalogRepository
+ */
+package Model;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+
+final class BinaryRowIndex {
+    /** Smallest table capacity, in slots */
+    private static final int MIN_CAPACITY = 1 << 10;
+
+    /** Catalog whose pooled strings are compared on lookup */
+    private final BinaryCatalog catalog;
+
+    /** Normalization applied to the pooled strings and to looked-up keys */
+    private final UnaryOperator<String> normalizer;
+
+    /** Table slots: the string id of a key plus one; 0 marks an empty slot */
+    private int[] slots;
+
+    /** Hash of the normalized key in each occupied slot */
+    private int[] hashes;
+
+    /** Number of keys in the table */
+    private int keyCount;
+
+    /** Start of each key's rows in the packed row array, indexed by string id; the next id's start ends them */
+    private final int[] starts;
+
+    /** Rows of every key, grouped by key */
+    private final int[] rows;
+
+    /**
+     * Builds the index of a column.
+     *
+     * @param catalog Catalog holding the column
+     * @param rowCount Number of rows to index, from row 0
+     * @param stringIdOf String id stored in the column for a row
+     * @param normalizer Normalization applied to the strings, e.g. trimming and lower-casing
+     */
+    BinaryRowIndex(BinaryCatalog catalog, int rowCount, IntUnaryOperator stringIdOf, UnaryOperator<String> normalizer) {
+        this.catalog = catalog;
+        this.normalizer = normalizer;
+        this.slots = new int[MIN_CAPACITY];
+        this.hashes = new int[MIN_CAPACITY];
+
+        // First pass: map every string id to the id of its key, counting the rows per key
+        int stringCount = catalog.getStringCount();
+        int[] keyOf = new int[stringCount];
+        Arrays.fill(keyOf, -1);
+        int[] counts = new int[stringCount + 1];
+        for (int row = 0; row < rowCount; row++) {
+            int id = stringIdOf.applyAsInt(row);
+            if (keyOf[id] < 0) {
+                keyOf[id] = intern(id);
+            }
+            counts[keyOf[id] + 1]++;
+        }
+        for (int id = 0; id < stringCount; id++) {
+            counts[id + 1] += counts[id];
+        }
+        this.starts = counts;
+
+        // Second pass: place the rows, in row order within each key
+        this.rows = new int[rowCount];
+        int[] next = Arrays.copyOf(counts, stringCount);
+        for (int row = 0; row < rowCount; row++) {
+            rows[next[keyOf[stringIdOf.applyAsInt(row)]]++] = row;
+        }
+    }
+
+    /**
+     * Finds the rows whose string normalizes to a key.
+     *
+     * @param key Normalized key to look up
+     * @return Rows holding the key, in row order
+     */
+    int[] rows(String key) {
+        int id = find(key, key.hashCode());
+        return id < 0 ? new int[0] : Arrays.copyOfRange(rows, starts[id], starts[id + 1]);
+    }
+
+    /**
+     * Finds the key of a string id, adding the string as a new key if no equal key exists.
+     *
+     * @return String id representing the key
+     */
+    private int intern(int id) {
+        String key = normalizer.apply(catalog.string(id));
+        int hash = key.hashCode();
+        int existing = find(key, hash);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (++keyCount * 2 > slots.length) {
+            grow();
+        }
+        place(slots, hashes, hash, id);
+        return id;
+    }
+
+    private int find(String key, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[slot] == hash && key.equals(normalizer.apply(catalog.string(id)))) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    private void grow() {
+        int[] grownSlots = new int[slots.length * 2];
+        int[] grownHashes = new int[grownSlots.length];
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] != 0) {
+                place(grownSlots, grownHashes, hashes[slot], slots[slot] - 1);
+            }
+        }
+        slots = grownSlots;
+        hashes = grownHashes;
+    }
+
+    private static void place(int[] slots, int[] hashes, int hash, int id) {
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+        hashes[slot] = hash;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
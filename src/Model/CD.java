@@ -16,6 +16,7 @@
 package Model;
 
 import Enums.Genre;
+import Interfaces.Recording;
 
 /**
  * Represents a CD product in the music shop.
@@ -32,8 +33,8 @@ import Enums.Genre;
  * @see Product
  * @see Purchasable
  */
-public class CD extends Product {
-    private String artist;
+public class CD extends Product implements Recording {
+    private final int artistId;  // Registry id of the artist's name
     private Genre genre;
     private int numberOfTracks;
     private String duration;     // Total playing time (e.g., "74:32")
@@ -44,14 +45,14 @@ public class CD extends Product {
      * @param title CD title
      * @param artist Artist name
      * @param genre Music genre
-     * @param price CD price
+     * @param priceCents CD price in cents
      * @param imageFileName Image file name for the CD
      * @param numberOfTracks Number of tracks on the CD
      * @param duration Total playing time of the CD
      */
-    public CD(String title, String artist, Genre genre, double price, String imageFileName, int numberOfTracks, String duration) {
-        super(title, price, imageFileName);
-        this.artist = artist;
+    public CD(String title, String artist, Genre genre, long priceCents, String imageFileName, int numberOfTracks, String duration) {
+        super(title, priceCents, imageFileName);
+        this.artistId = NameRegistry.getInstance().intern(artist);
         this.genre = genre;
         this.numberOfTracks = numberOfTracks;
         this.duration = duration;
@@ -62,6 +63,7 @@ public class CD extends Product {
      * 
      * @return CD title
      */
+    @Override
     public String getTitle() {
         return getName();
     }
@@ -71,8 +73,29 @@ public class CD extends Product {
      * 
      * @return Artist name
      */
+    @Override
     public String getArtist() {
-        return artist;
+        return NameRegistry.getInstance().name(artistId);
+    }
+
+    /**
+     * Returns the registry id of the CD's title.
+     * 
+     * @return Title id
+     */
+    @Override
+    public int getTitleId() {
+        return getNameId();
+    }
+
+    /**
+     * Returns the registry id of the CD's artist.
+     * 
+     * @return Artist id
+     */
+    @Override
+    public int getArtistId() {
+        return artistId;
     }
 
     /**
@@ -80,6 +103,7 @@ public class CD extends Product {
      * 
      * @return Music genre
      */
+    @Override
     public Genre getGenre() {
         return genre;
     }
@@ -110,7 +134,7 @@ public class CD extends Product {
      */
     @Override
     public String toString() {
-        return getTitle() + " - " + artist + " (" + genre + ") " + numberOfTracks + " tracks, " + duration + " ($" + getPrice() + ")";
+        return getTitle() + " - " + getArtist() + " (" + genre + ") " + numberOfTracks + " tracks, " + duration + " (" + Money.format(getPriceCents()) + ")";
     }
 
     /**
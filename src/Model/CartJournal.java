@@ -0,0 +1,611 @@
+/**
+ * Write-behind journal that makes the carts of a CartService survive a crash.
+ * Cart changes are queued by the tills and written, batched and fsync'd,
+ * by a background thread; the tills never wait for the disk.
+ *
+ * Key features:
+ * - Recording a change is a queue append; no I/O on the till's thread
+ * - Changes written in batches and forced to disk on a configurable interval
+ * - A batch that fails to reach the disk is cut off the journal and kept,
+ *   to be written again ahead of newer changes on the next flush
+ * - Changes too long for a record are rejected when they are recorded, so the
+ *   writer never writes a record that replay would take for a torn one
+ * - The writer keeps an image of every cart, replayed from the changes it writes
+ * - The image compacted into a snapshot on a configurable interval, after which
+ *   the journal starts over
+ * - Restart: the snapshot is loaded and the journal tail after it replayed
+ * - Every journal record is length-prefixed and checksummed; a record torn by a
+ *   crash ends the replay and is cut off
+ *
+ * Files, in the journal directory (big-endian):
+ * - carts.journal: records of length (int), CRC-32 (int), then sequence number (long),
+ *   operation (byte), customer id (UTF), text (UTF) and quantity (int);
+ *   the text is the customer name when a session opens, otherwise a SKU
+ * - carts.snapshot: magic, version, last sequence number included and cart count, then per
+ *   cart its customer id, name, item limit, line count and lines (SKU, quantity);
+ *   written to a temporary file and renamed into place
+ *
+ * Records are numbered by the writer, in the order it writes them; records
+ * at or below the snapshot's sequence number are already in the snapshot.
+ *
+ * @see CartService
+ * @see ShoppingCart
+ */
+package Model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public final class CartJournal implements AutoCloseable {
+    /** Journal file name */
+    static final String JOURNAL_FILE = "carts.journal";
+
+    /** Snapshot file name */
+    static final String SNAPSHOT_FILE = "carts.snapshot";
+
+    /** Snapshot file signature: "MSCS" */
+    private static final int SNAPSHOT_MAGIC = 0x4D534353;
+
+    /** Current snapshot format version */
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /** Largest journal record accepted on replay; anything bigger is a torn length */
+    private static final int MAX_RECORD_SIZE = 64 * 1024;
+
+    /** Bytes of a record besides its two strings: sequence, operation, two string lengths and quantity */
+    private static final int RECORD_OVERHEAD = Long.BYTES + 1 + 2 * Short.BYTES + Integer.BYTES;
+
+    /** A session was opened; text holds the name, quantity the item limit */
+    private static final byte OPEN = 1;
+
+    /** Units were added; text holds the SKU */
+    private static final byte ADD = 2;
+
+    /** Units were removed; text holds the SKU */
+    private static final byte REMOVE = 3;
+
+    /** The cart was emptied */
+    private static final byte CLEAR = 4;
+
+    /** The session was closed or evicted */
+    private static final byte CLOSE = 5;
+
+    /**
+     * A cart change waiting to be written.
+     */
+    private static final class Change {
+        private final byte operation;
+        private final String customerId;
+        private final String text;
+        private final int quantity;
+
+        Change(byte operation, String customerId, String text, int quantity) {
+            this.operation = operation;
+            this.customerId = customerId;
+            this.text = text;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Durable image of one cart: the session details and the quantity of every SKU.
+     */
+    private static final class CartImage {
+        private final String name;
+        private final int cartLimit;
+        private final Map<String, Integer> quantities = new LinkedHashMap<>();
+
+        CartImage(String name, int cartLimit) {
+            this.name = name;
+            this.cartLimit = cartLimit;
+        }
+    }
+
+    /** Directory holding the journal and the snapshot */
+    private final Path directory;
+
+    /** Journal file, positioned at its end */
+    private final FileChannel journal;
+
+    /** Changes recorded by the tills and not written yet */
+    private final ConcurrentLinkedQueue<Change> pending = new ConcurrentLinkedQueue<>();
+
+    /** Changes taken off the queue whose batch is not forced to disk yet; used by the writer only */
+    private final List<Change> unwritten = new ArrayList<>();
+
+    /** Image of every cart, as of the last written change; used by the writer only */
+    private final Map<String, CartImage> carts = new LinkedHashMap<>();
+
+    /** Runs the periodic flush and snapshot */
+    private final ScheduledExecutorService writer;
+
+    /** Sequence number of the last written change */
+    private long lastSequence;
+
+    /** Sequence number of the last change included in the snapshot */
+    private long snapshotSequence;
+
+    /** Number of changes written since the journal was opened */
+    private long writtenCount;
+
+    /** Number of snapshots written since the journal was opened */
+    private long snapshotCount;
+
+    /**
+     * Opens the journal in a directory, loading the snapshot and replaying the journal
+     * written before, and starts the background writer.
+     *
+     * @param directory Directory holding the journal and the snapshot; created if missing
+     * @param flushIntervalMillis Interval between batched, fsync'd journal writes
+     * @param snapshotIntervalMillis Interval between snapshots
+     * @throws IOException if the files cannot be read or opened
+     * @throws IllegalArgumentException if an interval is not positive
+     */
+    public CartJournal(Path directory, long flushIntervalMillis, long snapshotIntervalMillis) throws IOException {
+        if (flushIntervalMillis <= 0 || snapshotIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Journal intervals must be positive");
+        }
+        this.directory = directory;
+        Files.createDirectories(directory);
+        loadSnapshot();
+        this.journal = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replayJournal();
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "cart-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flushQuietly,
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        writer.scheduleWithFixedDelay(this::snapshotQuietly,
+                snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks whether a change of a customer's cart fits in a journal record.
+     *
+     * @param customerId Customer's unique identifier
+     * @param text Customer name or SKU of the change, or null for none
+     * @return true if the change can be journaled
+     */
+    static boolean fits(String customerId, String text) {
+        return RECORD_OVERHEAD + utfLength(customerId) + (text == null ? 0 : utfLength(text)) <= MAX_RECORD_SIZE;
+    }
+
+    /**
+     * Rejects a change that does not fit in a journal record, before the cart is changed.
+     *
+     * @param customerId Customer's unique identifier
+     * @param text Customer name or SKU of the change, or null for none
+     * @throws IllegalArgumentException if the change is too long to journal
+     */
+    static void checkFits(String customerId, String text) {
+        if (!fits(customerId, text)) {
+            throw new IllegalArgumentException("Cart change too long for a journal record ("
+                    + MAX_RECORD_SIZE + " bytes) for customer id of " + customerId.length() + " characters");
+        }
+    }
+
+    /**
+     * Gets the length of a string in the modified UTF-8 written by DataOutputStream.writeUTF.
+     */
+    private static int utfLength(String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                length += 2;
+            } else if (c >= 0x80 || c == 0) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Records that a session was opened.
+     *
+     * @param customerId Customer's unique identifier
+     * @param name Customer's name
+     * @param cartLimit Maximum number of items in the cart
+     * @throws IllegalArgumentException if the change is too long to journal
+     */
+    void recordOpen(String customerId, String name, int cartLimit) {
+        checkFits(customerId, name);
+        pending.add(new Change(OPEN, customerId, name, cartLimit));
+    }
+
+    /**
+     * Records units added to a cart.
+     * Products without a SKU are not in the catalog and cannot be restored, so they are not recorded.
+     *
+     * @param customerId Customer's unique identifier
+     * @param product Product added
+     * @param quantity Number of units added
+     * @throws IllegalArgumentException if the change is too long to journal
+     */
+    void recordAdd(String customerId, Product product, int quantity) {
+        if (product.getSku() != null) {
+            checkFits(customerId, product.getSku());
+            pending.add(new Change(ADD, customerId, product.getSku(), quantity));
+        }
+    }
+
+    /**
+     * Records units removed from a cart.
+     * Products without a SKU are not recorded.
+     *
+     * @param customerId Customer's unique identifier
+     * @param product Product removed
+     * @param quantity Number of units removed
+     * @throws IllegalArgumentException if the change is too long to journal
+     */
+    void recordRemove(String customerId, Product product, int quantity) {
+        if (product.getSku() != null) {
+            checkFits(customerId, product.getSku());
+            pending.add(new Change(REMOVE, customerId, product.getSku(), quantity));
+        }
+    }
+
+    /**
+     * Records that a cart was emptied.
+     *
+     * @param customerId Customer's unique identifier
+     * @throws IllegalArgumentException if the change is too long to journal
+     */
+    void recordClear(String customerId) {
+        checkFits(customerId, null);
+        pending.add(new Change(CLEAR, customerId, "", 0));
+    }
+
+    /**
+     * Records that a session was closed or evicted.
+     *
+     * @param customerId Customer's unique identifier
+     * @throws IllegalArgumentException if the change is too long to journal
+     */
+    void recordClose(String customerId) {
+        checkFits(customerId, null);
+        pending.add(new Change(CLOSE, customerId, "", 0));
+    }
+
+    /**
+     * Writes every recorded change to the journal as one batch and forces it to disk.
+     * If the batch cannot be written or forced, it is cut off the journal and its
+     * changes are kept, to be written again ahead of newer changes on the next flush.
+     * Runs periodically in the background; may also be called directly.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        Change change;
+        while ((change = pending.poll()) != null) {
+            unwritten.add(change);
+        }
+        if (unwritten.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(batch);
+        ByteArrayOutputStream record = new ByteArrayOutputStream(64);
+        DataOutputStream recordOut = new DataOutputStream(record);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < unwritten.size(); i++) {
+            Change next = unwritten.get(i);
+            record.reset();
+            recordOut.writeLong(lastSequence + i + 1);
+            recordOut.writeByte(next.operation);
+            recordOut.writeUTF(next.customerId);
+            recordOut.writeUTF(next.text);
+            recordOut.writeInt(next.quantity);
+            crc.reset();
+            crc.update(record.toByteArray());
+            out.writeInt(record.size());
+            out.writeInt((int) crc.getValue());
+            record.writeTo(out);
+        }
+        long start = journal.position();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journal.force(false);
+        } catch (IOException | RuntimeException e) {
+            // Cut off a partly written batch, so later batches are not written after torn bytes
+            try {
+                journal.position(start);
+                journal.truncate(start);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+
+        for (Change applied : unwritten) {
+            apply(applied);
+        }
+        lastSequence += unwritten.size();
+        writtenCount += unwritten.size();
+        unwritten.clear();
+    }
+
+    /**
+     * Writes a snapshot of every cart and starts the journal over.
+     * Runs periodically in the background; may also be called directly.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized void snapshot() throws IOException {
+        flush();
+        if (lastSequence == snapshotSequence) {
+            return;
+        }
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(lastSequence);
+            out.writeInt(carts.size());
+            for (Map.Entry<String, CartImage> entry : carts.entrySet()) {
+                CartImage cart = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeUTF(cart.name);
+                out.writeInt(cart.cartLimit);
+                out.writeInt(cart.quantities.size());
+                for (Map.Entry<String, Integer> line : cart.quantities.entrySet()) {
+                    out.writeUTF(line.getKey());
+                    out.writeInt(line.getValue());
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The rename must be on disk before the journal it replaces is cut
+        forceDirectory();
+        snapshotSequence = lastSequence;
+        snapshotCount++;
+
+        // Everything in the journal is now in the snapshot
+        journal.truncate(0);
+        journal.position(0);
+        journal.force(true);
+    }
+
+    /**
+     * Forces the directory entry changes, such as the snapshot's rename, to disk.
+     */
+    private void forceDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Some platforms cannot open a directory; their renames are as durable as they allow
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Error writing cart journal: " + e.getMessage());
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            System.err.println("Error writing cart snapshot: " + e.getMessage());
+        }
+    }
+
+    private void apply(Change change) {
+        switch (change.operation) {
+            case OPEN:
+                carts.putIfAbsent(change.customerId, new CartImage(change.text, change.quantity));
+                break;
+            case ADD:
+            case REMOVE:
+                CartImage cart = carts.get(change.customerId);
+                if (cart != null) {
+                    int delta = change.operation == ADD ? change.quantity : -change.quantity;
+                    int quantity = cart.quantities.getOrDefault(change.text, 0) + delta;
+                    if (quantity > 0) {
+                        cart.quantities.put(change.text, quantity);
+                    } else {
+                        cart.quantities.remove(change.text);
+                    }
+                }
+                break;
+            case CLEAR:
+                CartImage cleared = carts.get(change.customerId);
+                if (cleared != null) {
+                    cleared.quantities.clear();
+                }
+                break;
+            case CLOSE:
+                carts.remove(change.customerId);
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal operation " + change.operation);
+        }
+    }
+
+    private void loadSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream stream = Files.newInputStream(file)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a cart snapshot file: " + file);
+            }
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported cart snapshot version " + version);
+            }
+            snapshotSequence = in.readLong();
+            lastSequence = snapshotSequence;
+            int cartCount = in.readInt();
+            for (int i = 0; i < cartCount; i++) {
+                String customerId = in.readUTF();
+                CartImage cart = new CartImage(in.readUTF(), in.readInt());
+                int lineCount = in.readInt();
+                for (int line = 0; line < lineCount; line++) {
+                    cart.quantities.put(in.readUTF(), in.readInt());
+                }
+                carts.put(customerId, cart);
+            }
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        journal.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(journal)));
+        CRC32 crc = new CRC32();
+        long validLength = 0;
+        try {
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(record));
+                long sequence = fields.readLong();
+                Change change = new Change(fields.readByte(), fields.readUTF(), fields.readUTF(), fields.readInt());
+                // Records up to the snapshot's sequence number are already in the snapshot
+                if (sequence > snapshotSequence) {
+                    apply(change);
+                    lastSequence = sequence;
+                }
+                validLength += Integer.BYTES * 2 + length;
+            }
+        } catch (EOFException e) {
+            // End of the journal, possibly inside a record torn by a crash
+        }
+        if (validLength < journal.size()) {
+            System.err.println("Cart journal: discarded " + (journal.size() - validLength)
+                    + " bytes of incomplete records");
+            journal.truncate(validLength);
+        }
+        journal.position(validLength);
+    }
+
+    /**
+     * Reopens the journaled sessions in a cart service and refills their carts.
+     * Must be called before the journal is attached to the service, so the
+     * restored carts are not journaled a second time.
+     *
+     * @param service Service to restore the sessions into
+     * @param catalog Catalog resolving the journaled SKUs
+     * @return Number of sessions restored
+     */
+    public synchronized int restore(CartService service, CatalogRepository catalog) {
+        for (Map.Entry<String, CartImage> entry : carts.entrySet()) {
+            CartImage cart = entry.getValue();
+            service.openSession(entry.getKey(), cart.name, cart.cartLimit);
+            for (Map.Entry<String, Integer> line : cart.quantities.entrySet()) {
+                Product product = catalog.findBySku(line.getKey());
+                if (product == null) {
+                    System.err.println("Cart journal: unknown SKU " + line.getKey()
+                            + " in the cart of " + entry.getKey());
+                    continue;
+                }
+                service.restoreItem(entry.getKey(), product, line.getValue());
+            }
+        }
+        return carts.size();
+    }
+
+    /**
+     * Gets the sequence number of the last change written and forced to disk.
+     *
+     * @return Last durable sequence number
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Gets the number of changes written since the journal was opened.
+     *
+     * @return Written change count
+     */
+    public synchronized long getWrittenCount() {
+        return writtenCount;
+    }
+
+    /**
+     * Gets the number of snapshots written since the journal was opened.
+     *
+     * @return Snapshot count
+     */
+    public synchronized long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Stops the background writer, writes the remaining changes and closes the journal.
+     *
+     * @throws IOException if the remaining changes cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                flush();
+            } finally {
+                journal.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,513 @@
+/**
+ * Shared service holding the shopping carts of every till and kiosk session.
+ * Lets many threads work on thousands of carts at once, each cart guarded by a lock stripe.
+ *
+ * Key features:
+ * - Sessions keyed by customer id in a ConcurrentHashMap
+ * - Striped locking: a cart is only ever changed under the lock of its stripe,
+ *   so threads working on carts of different stripes never wait for each other
+ * - Cart operations run as callbacks under the lock; the single-threaded
+ *   Customer and ShoppingCart classes need no changes
+ * - Callers never hold a live cart: they see read-only CartSnapshot copies,
+ *   so every change is made under the lock and journaled
+ * - Sessions idle for longer than the timeout evicted by a background thread
+ * - Transactional checkout under the cart's lock, recording one Sale per cart
+ * - Optional off-heap CustomerStore: sessions of stored customers start from their
+ *   record, and purchases are written back at checkout
+ * - Session and eviction counts for monitoring
+ * - Optional write-behind CartJournal: changes are recorded under the cart's
+ *   lock, so each cart's changes are journaled in the order they were made
+ *
+ * Design Pattern: Singleton Pattern
+ * - One service shared by every till in the JVM
+ *
+ * @see ShoppingCart
+ * @see CartSnapshot
+ * @see Customer
+ * @see CartJournal
+ * @see CustomerStore
+ */
+package Model;
+
+import Exceptions.PurchaseLimitException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+public final class CartService {
+    /** Default number of lock stripes */
+    public static final int DEFAULT_STRIPES = 64;
+
+    /** Default time after which an untouched session is evicted */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * An open cart session.
+     */
+    private static final class Session {
+        private final Customer customer;
+
+        /** Time of the last operation, from System.nanoTime */
+        private volatile long lastAccessNanos;
+
+        Session(Customer customer) {
+            this.customer = customer;
+            this.lastAccessNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Lazily initialized holder for the shared service.
+     */
+    private static final class Holder {
+        private static final CartService INSTANCE = new CartService(DEFAULT_STRIPES, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /** Open sessions by customer id */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /** Lock stripes; a power of two so a stripe is picked with a mask */
+    private final ReentrantLock[] stripes;
+
+    /** Idle time after which a session is evicted, in nanoseconds */
+    private final long idleTimeoutNanos;
+
+    /** Runs idle eviction, or null if sessions never expire */
+    private final ScheduledExecutorService evictor;
+
+    /** Number of sessions evicted for being idle */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** Journal recording every cart change, or null when carts are not durable */
+    private volatile CartJournal journal;
+
+    /** Store holding every customer's record, or null when customers live only in their sessions */
+    private volatile CustomerStore customerStore;
+
+    /**
+     * Constructs a service.
+     *
+     * @param stripeCount Number of lock stripes, rounded up to a power of two
+     * @param idleTimeoutMillis Idle time after which a session is evicted; 0 to never evict
+     * @throws IllegalArgumentException if the stripe count is not positive or the timeout is negative
+     */
+    public CartService(int stripeCount, long idleTimeoutMillis) {
+        if (stripeCount <= 0 || stripeCount > 1 << 16) {
+            throw new IllegalArgumentException("Stripe count out of range: " + stripeCount);
+        }
+        if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Idle timeout must not be negative: " + idleTimeoutMillis);
+        }
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        if (idleTimeoutMillis > 0) {
+            long period = Math.max(1, idleTimeoutMillis / 4);
+            this.evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "cart-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.evictor = null;
+        }
+    }
+
+    /**
+     * Gets the service shared by every till.
+     *
+     * @return The shared cart service
+     */
+    public static CartService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private ReentrantLock stripeOf(String customerId) {
+        int hash = customerId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Opens a session for a customer, or returns the session already open.
+     *
+     * @param customerId Customer's unique identifier
+     * @param name Customer's name, used when a new session is opened
+     * @return Read-only copy of the session's cart
+     * @throws IllegalArgumentException if the id and name are too long for the attached journal
+     */
+    public CartSnapshot openSession(String customerId, String name) {
+        return openSession(customerId, name, ShoppingCart.MAX_ITEMS);
+    }
+
+    /**
+     * Opens a session for a customer whose cart holds up to the given number of items,
+     * or returns the session already open. With a customer store,
+     * a stored customer is loaded from its record and a new one is added to it;
+     * a customer whose id is too long for the store is kept in its session only.
+     *
+     * @param customerId Customer's unique identifier
+     * @param name Customer's name, used when a new session is opened
+     * @param cartLimit Maximum number of items in the cart, used when a new session is opened
+     * @return Read-only copy of the session's cart
+     * @throws IllegalArgumentException if the id and name are too long for the attached journal
+     */
+    public CartSnapshot openSession(String customerId, String name, int cartLimit) {
+        CartSnapshot snapshot;
+        boolean storeSkipped = false;
+        ReentrantLock lock = stripeOf(customerId);
+        lock.lock();
+        try {
+            Session session = sessions.get(customerId);
+            if (session == null) {
+                CustomerStore store = customerStore;
+                if (store != null && !CustomerStore.canStore(customerId)) {
+                    storeSkipped = true;
+                    store = null;
+                }
+                Customer customer = store == null ? null : store.load(customerId);
+                boolean stored = customer != null;
+                if (!stored) {
+                    customer = new Customer(customerId, name, cartLimit);
+                }
+                // The journal records the name and limit the session actually has, which for a
+                // stored customer are the ones from its record
+                CartJournal currentJournal = journal;
+                if (currentJournal != null) {
+                    CartJournal.checkFits(customerId, customer.getName());
+                }
+                if (store != null && !stored) {
+                    store.add(customerId, name, cartLimit);
+                }
+                session = new Session(customer);
+                sessions.put(customerId, session);
+                if (currentJournal != null) {
+                    currentJournal.recordOpen(customerId, customer.getName(), customer.getCart().getMaxItems());
+                }
+            }
+            session.lastAccessNanos = System.nanoTime();
+            snapshot = new CartSnapshot(session.customer);
+        } finally {
+            lock.unlock();
+        }
+        // Reported after the lock is released, so other tills on the stripe never wait for the console
+        if (storeSkipped) {
+            System.err.println("Customer id too long for the customer store, keeping "
+                    + customerId + " in its session only");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Closes a customer's session, discarding the cart.
+     *
+     * @param customerId Customer's unique identifier
+     * @return true if a session was open
+     * @throws IllegalArgumentException if the change is too long for the attached journal
+     */
+    public boolean closeSession(String customerId) {
+        ReentrantLock lock = stripeOf(customerId);
+        lock.lock();
+        try {
+            CartJournal currentJournal = journal;
+            if (currentJournal != null && sessions.containsKey(customerId)) {
+                CartJournal.checkFits(customerId, null);
+            }
+            if (sessions.remove(customerId) == null) {
+                return false;
+            }
+            if (currentJournal != null) {
+                currentJournal.recordClose(customerId);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an operation on a customer's cart under the cart's lock.
+     * The cart must not escape the operation.
+     */
+    private <T> T withCart(String customerId, Function<ShoppingCart, T> operation) {
+        return withCustomer(customerId, customer -> operation.apply(customer.getCart()));
+    }
+
+    /**
+     * Runs an operation on a session's customer under the cart's lock.
+     * The customer must not escape the operation.
+     */
+    private <T> T withCustomer(String customerId, Function<Customer, T> operation) {
+        ReentrantLock lock = stripeOf(customerId);
+        lock.lock();
+        try {
+            Session session = sessions.get(customerId);
+            if (session == null) {
+                throw new IllegalStateException("No open cart session for customer " + customerId);
+            }
+            session.lastAccessNanos = System.nanoTime();
+            return operation.apply(session.customer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds units of a product to a customer's cart.
+     *
+     * @param customerId Customer's unique identifier
+     * @param product Product to add
+     * @param quantity Number of units to add
+     * @return The cart total after the change, in cents
+     * @throws PurchaseLimitException if the cart would exceed its item limit
+     * @throws IllegalStateException if the customer has no open session
+     * @throws IllegalArgumentException if the change is too long for the attached journal
+     */
+    public long addItem(String customerId, Product product, int quantity) throws PurchaseLimitException {
+        return withCart(customerId, cart -> {
+            CartJournal currentJournal = journal;
+            if (currentJournal != null) {
+                CartJournal.checkFits(customerId, product.getSku());
+            }
+            cart.addItem(product, quantity);
+            if (currentJournal != null) {
+                currentJournal.recordAdd(customerId, product, quantity);
+            }
+            return cart.getTotal();
+        });
+    }
+
+    /**
+     * Removes units of a product from a customer's cart.
+     *
+     * @param customerId Customer's unique identifier
+     * @param product Product to remove
+     * @param quantity Number of units to remove
+     * @return The cart total after the change, in cents
+     * @throws IllegalStateException if the customer has no open session
+     * @throws IllegalArgumentException if the change is too long for the attached journal
+     */
+    public long removeItem(String customerId, Product product, int quantity) {
+        return withCart(customerId, cart -> {
+            CartJournal currentJournal = journal;
+            if (currentJournal != null) {
+                CartJournal.checkFits(customerId, product.getSku());
+            }
+            int removed = cart.removeItem(product, quantity);
+            if (currentJournal != null && removed > 0) {
+                currentJournal.recordRemove(customerId, product, removed);
+            }
+            return cart.getTotal();
+        });
+    }
+
+    /**
+     * Empties a customer's cart.
+     *
+     * @param customerId Customer's unique identifier
+     * @throws IllegalStateException if the customer has no open session
+     * @throws IllegalArgumentException if the change is too long for the attached journal
+     */
+    public void clearCart(String customerId) {
+        withCart(customerId, cart -> {
+            CartJournal currentJournal = journal;
+            if (currentJournal != null) {
+                CartJournal.checkFits(customerId, null);
+            }
+            cart.clearCart();
+            if (currentJournal != null) {
+                currentJournal.recordClear(customerId);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Checks out a customer's cart as one transaction.
+     * The emptied cart is journaled, and the purchases saved to the customer
+     * store, only if the checkout succeeds.
+     *
+     * @param customerId Customer's unique identifier
+     * @return The sale recording the purchase
+     * @throws PurchaseLimitException if the purchase would exceed the customer's limit or a line is out of stock
+     * @throws IllegalStateException if the customer has no open session or the cart is empty
+     * @throws IllegalArgumentException if the change is too long for the attached journal
+     */
+    public Sale checkout(String customerId) throws PurchaseLimitException {
+        return withCart(customerId, cart -> {
+            CartJournal currentJournal = journal;
+            if (currentJournal != null) {
+                CartJournal.checkFits(customerId, null);
+            }
+            Sale sale = cart.checkout();
+            CustomerStore store = customerStore;
+            if (store != null && CustomerStore.canStore(customerId)) {
+                store.save(sale.getCustomer());
+            }
+            if (currentJournal != null) {
+                currentJournal.recordClear(customerId);
+            }
+            return sale;
+        });
+    }
+
+    /**
+     * Refills a restored cart without journaling the items again.
+     *
+     * @param customerId Customer's unique identifier
+     * @param product Product to add
+     * @param quantity Number of units to add
+     * @throws PurchaseLimitException if the cart would exceed its item limit
+     * @throws IllegalStateException if the customer has no open session
+     */
+    void restoreItem(String customerId, Product product, int quantity) throws PurchaseLimitException {
+        withCart(customerId, cart -> {
+            cart.addItem(product, quantity);
+            return null;
+        });
+    }
+
+    /**
+     * Gets a read-only copy of a customer's cart.
+     *
+     * @param customerId Customer's unique identifier
+     * @return Copy of the cart as it is now
+     * @throws IllegalStateException if the customer has no open session
+     */
+    public CartSnapshot getCart(String customerId) {
+        return withCustomer(customerId, CartSnapshot::new);
+    }
+
+    /**
+     * Gets the total of a customer's cart.
+     *
+     * @param customerId Customer's unique identifier
+     * @return Cart total in cents
+     * @throws IllegalStateException if the customer has no open session
+     */
+    public long getTotal(String customerId) {
+        return withCart(customerId, ShoppingCart::getTotal);
+    }
+
+    /**
+     * Evicts every session idle for longer than the timeout.
+     * Runs periodically in the background; may also be called directly.
+     *
+     * @return Number of sessions evicted
+     */
+    public int evictIdle() {
+        if (idleTimeoutNanos == 0) {
+            return 0;
+        }
+        int evicted = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            if (System.nanoTime() - entry.getValue().lastAccessNanos <= idleTimeoutNanos) {
+                continue;
+            }
+            // Checked again under the lock, in case an operation touched the session meanwhile
+            ReentrantLock lock = stripeOf(entry.getKey());
+            lock.lock();
+            try {
+                Session session = sessions.get(entry.getKey());
+                if (session != null && System.nanoTime() - session.lastAccessNanos > idleTimeoutNanos
+                        && sessions.remove(entry.getKey(), session)) {
+                    evicted++;
+                    // A session whose id cannot be journaled was never journaled as open
+                    CartJournal currentJournal = journal;
+                    if (currentJournal != null && CartJournal.fits(entry.getKey(), null)) {
+                        currentJournal.recordClose(entry.getKey());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        evictions.addAndGet(evicted);
+        return evicted;
+    }
+
+    /**
+     * Starts recording every cart change in a journal.
+     * Sessions restored from the journal must be restored before it is attached.
+     *
+     * @param journal Journal to record changes in, or null to stop journaling
+     */
+    public void setJournal(CartJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the journal recording the cart changes.
+     *
+     * @return The journal, or null when carts are not durable
+     */
+    public CartJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Backs sessions with a customer store. Sessions already open keep their customer.
+     *
+     * @param customerStore Store of customer records, or null to keep customers only in their sessions
+     */
+    public void setCustomerStore(CustomerStore customerStore) {
+        this.customerStore = customerStore;
+    }
+
+    /**
+     * Gets the store backing the sessions.
+     *
+     * @return The customer store, or null if sessions are not backed by one
+     */
+    public CustomerStore getCustomerStore() {
+        return customerStore;
+    }
+
+    /**
+     * Gets the number of open sessions.
+     *
+     * @return Session count
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the number of sessions evicted for being idle.
+     *
+     * @return Eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Gets the number of lock stripes.
+     *
+     * @return Stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Stops background eviction. Open sessions are kept.
+     */
+    public void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+    }
+}
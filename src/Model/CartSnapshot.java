@@ -0,0 +1,124 @@
+/**
+ * Read-only copy of a cart session, taken under the cart's lock by the CartService.
+ * Callers see the cart as it was when the copy was taken; every change goes
+ * through the service, so it is made under the lock and journaled.
+ *
+ * Key features:
+ * - Customer id and name, item limit, item count and total of the cart
+ * - Quantity of each product in the order the products were added
+ * - Immutable, so it can be shared freely between threads
+ *
+ * Design Pattern: Value Object Pattern
+ * - Immutable snapshot of a mutable cart
+ *
+ * @see CartService
+ * @see ShoppingCart
+ */
+package Model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class CartSnapshot {
+    /** Customer's unique identifier */
+    private final String customerId;
+
+    /** Customer's name */
+    private final String name;
+
+    /** Maximum number of items in the cart */
+    private final int maxItems;
+
+    /** Number of items in the cart */
+    private final int itemCount;
+
+    /** Cart total in cents */
+    private final long totalCents;
+
+    /** Units of each product, in the order the products were added */
+    private final Map<Product, Integer> quantities;
+
+    /**
+     * Copies a customer's cart. Must be called under the cart's lock.
+     *
+     * @param customer Customer whose cart is copied
+     */
+    CartSnapshot(Customer customer) {
+        ShoppingCart cart = customer.getCart();
+        this.customerId = customer.getCustomerId();
+        this.name = customer.getName();
+        this.maxItems = cart.getMaxItems();
+        this.itemCount = cart.getItemCount();
+        this.totalCents = cart.getTotal();
+        Map<Product, Integer> copy = new LinkedHashMap<>();
+        for (LineItem line : cart.getLineItems()) {
+            copy.put(line.getProduct(), line.getQuantity());
+        }
+        this.quantities = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Gets the customer's unique identifier.
+     *
+     * @return Customer id
+     */
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the customer's name.
+     *
+     * @return Customer name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the maximum number of items the cart may hold.
+     *
+     * @return Item limit
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Gets the number of items in the cart.
+     *
+     * @return Item count
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the total of the cart.
+     *
+     * @return Cart total in cents
+     */
+    public long getTotal() {
+        return totalCents;
+    }
+
+    /**
+     * Gets the number of units of a product in the cart.
+     *
+     * @param product Product to look up
+     * @return Quantity, 0 if the product is not in the cart
+     */
+    public int getQuantity(Product product) {
+        return quantities.getOrDefault(product, 0);
+    }
+
+    /**
+     * Gets the units of each product in the cart.
+     *
+     * @return Unmodifiable map of product to quantity, in the order the products were added
+     */
+    public Map<Product, Integer> getQuantities() {
+        return quantities;
+    }
+}
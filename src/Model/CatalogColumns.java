@@ -0,0 +1,220 @@
+/**
+ * Columnar (struct-of-arrays) store of the catalog fields used for filtering.
+ * Keeps one primitive array per field instead of one object per album.
+ *
+ * Key features:
+ * - Genre ordinals in a byte[], prices in cents in a long[], title and artist registry ids in int[]s
+ * - Filters scan the columns sequentially, 64 rows per bitmap word
+ * - Branch-free inner loops that the JIT can unroll and vectorize
+ * - Results are RowBitmaps that can be combined and iterated
+ *
+ * Design Pattern: Struct of Arrays
+ * - Row r of the store describes the album at catalog position r
+ *
+ * @see RowBitmap
+ * @see NameRegistry
+ * @see CatalogRepository
+ */
+package Model;
+
+import Enums.Genre;
+import Interfaces.Recording;
+
+import java.util.Arrays;
+
+public final class CatalogColumns {
+    /** Initial capacity of the columns */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Cached genre constants, indexed by ordinal */
+    private static final Genre[] GENRES = Genre.values();
+
+    /** Genre ordinal of every row */
+    private byte[] genres;
+
+    /** Price in cents of every row */
+    private long[] prices;
+
+    /** Artist id of every row */
+    private int[] artistIds;
+
+    /** Title id of every row */
+    private int[] titleIds;
+
+    /** Number of rows in the store */
+    private volatile int size;
+
+
+    /**
+     * Constructs an empty column store.
+     */
+    public CatalogColumns() {
+        genres = new byte[INITIAL_CAPACITY];
+        prices = new long[INITIAL_CAPACITY];
+        artistIds = new int[INITIAL_CAPACITY];
+        titleIds = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends a row for an album.
+     *
+     * @param album Album to append
+     * @return Row number of the album
+     */
+    public int add(Album album) {
+        return add(album, album.getPriceCents());
+    }
+
+    /**
+     * Appends a row for a recording with the given price.
+     *
+     * @param recording Recording to append
+     * @param priceCents Price of the recording in cents
+     * @return Row number of the recording
+     */
+    public int add(Recording recording, long priceCents) {
+        return add(recording.getGenre(), priceCents, recording.getTitleId(), recording.getArtistId());
+    }
+
+    /**
+     * Appends a row from column values, for catalogs that do not create products up front.
+     *
+     * @param genre Genre of the recording
+     * @param priceCents Price of the recording in cents
+     * @param titleId Title id in the shared NameRegistry
+     * @param artistId Artist id in the shared NameRegistry
+     * @return Row number of the recording
+     */
+    int add(Genre genre, long priceCents, int titleId, int artistId) {
+        if (size == genres.length) {
+            int capacity = size * 2;
+            genres = Arrays.copyOf(genres, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            artistIds = Arrays.copyOf(artistIds, capacity);
+            titleIds = Arrays.copyOf(titleIds, capacity);
+        }
+        genres[size] = (byte) genre.ordinal();
+        prices[size] = priceCents;
+        artistIds[size] = artistId;
+        titleIds[size] = titleId;
+        // Publish the row values before the size, so background readers of the size see them
+        return size++;
+    }
+
+    /**
+     * Gets the number of rows in the store.
+     *
+     * @return Row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the genre of a row.
+     *
+     * @param row Row number
+     * @return Genre of the row
+     */
+    public Genre getGenre(int row) {
+        return GENRES[genres[checkRow(row)]];
+    }
+
+    /**
+     * Gets the price of a row.
+     *
+     * @param row Row number
+     * @return Price in cents
+     */
+    public long getPriceCents(int row) {
+        return prices[checkRow(row)];
+    }
+
+    /**
+     * Gets the artist id of a row.
+     *
+     * @param row Row number
+     * @return Artist id in the shared NameRegistry
+     */
+    public int getArtistId(int row) {
+        return artistIds[checkRow(row)];
+    }
+
+    /**
+     * Gets the title id of a row.
+     *
+     * @param row Row number
+     * @return Title id in the shared NameRegistry
+     */
+    public int getTitleId(int row) {
+        return titleIds[checkRow(row)];
+    }
+
+    /**
+     * Finds the rows of a genre within a price range.
+     * For example, "ROCK under $20" is filter(Genre.ROCK, 0, 2000).
+     * Prices are expected to stay far from the long range limits.
+     *
+     * @param genre Genre to match, or null to match every genre
+     * @param minPriceCents Lowest matching price in cents, inclusive
+     * @param maxPriceCents Highest matching price in cents, exclusive
+     * @return Bitmap of the matching rows
+     */
+    public RowBitmap filter(Genre genre, long minPriceCents, long maxPriceCents) {
+        RowBitmap result = new RowBitmap(size);
+        long[] words = result.words();
+        byte[] genreColumn = genres;
+        long[] priceColumn = prices;
+        long anyGenre = genre == null ? 1 : 0;
+        long wanted = genre == null ? 0 : genre.ordinal();
+
+        // Each comparison is turned into a 0/1 value from a sign bit, so the loop has no branches
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(base + Long.SIZE, size);
+            long word = 0;
+            for (int row = base; row < end; row++) {
+                long price = priceColumn[row];
+                long genreMatch = anyGenre | (((genreColumn[row] ^ wanted) - 1) >>> 63);
+                long aboveMin = (minPriceCents - price - 1) >>> 63;
+                long belowMax = (price - maxPriceCents) >>> 63;
+                word |= (genreMatch & aboveMin & belowMax) << (row - base);
+            }
+            words[w] = word;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the rows by an artist.
+     * An id that is not in the store, such as NameRegistry.UNKNOWN, matches no row.
+     *
+     * @param artistId Artist id to match, from the shared NameRegistry
+     * @return Bitmap of the matching rows
+     */
+    public RowBitmap filterArtist(int artistId) {
+        RowBitmap result = new RowBitmap(size);
+        long[] words = result.words();
+        int[] artistColumn = artistIds;
+
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(base + Long.SIZE, size);
+            long word = 0;
+            for (int row = base; row < end; row++) {
+                // x | -x has its sign bit set for every x except 0, including negative ids such as UNKNOWN
+                int difference = artistColumn[row] ^ artistId;
+                word |= (long) (((difference | -difference) >>> 31) ^ 1) << (row - base);
+            }
+            words[w] = word;
+        }
+        return result;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range 0-" + (size - 1));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Facet counts over a set of catalog albums: how many albums there are
+ * per genre, per artist and per price bucket.
+ *
+ * Key features:
+ * - Incremental updates as rows are added to the counted set
+ * - Filtered counts computed from a RowBitmap, touching matching rows only
+ * - O(1) count lookups, O(k) top-artist lists
+ * - Price buckets by list price, or by any per-row price such as a format's price
+ *
+ * The catalog keeps one instance per format counting every album, updated on
+ * registration, so the unfiltered facets only require a catalog scan after repricing.
+ *
+ * @see CatalogColumns
+ * @see RowBitmap
+ * @see PriceBucket
+ * @see CatalogRepository
+ */
+package Model;
+
+import Enums.Genre;
+import Enums.PriceBucket;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+public final class CatalogFacets {
+    /** Column store the counted rows belong to */
+    private final CatalogColumns columns;
+
+    /** Price of each row used for the price buckets */
+    private final IntToLongFunction prices;
+
+    /** Album count per genre, indexed by genre ordinal */
+    private final int[] genreCounts;
+
+    /** Album count per price bucket, indexed by bucket ordinal */
+    private final int[] priceBucketCounts;
+
+    /** Album count per artist, indexed by artist registry id */
+    private int[] artistCounts;
+
+    /** Number of counted rows */
+    private int total;
+
+    /**
+     * Constructs empty facet counts over a column store, bucketing rows by list price.
+     *
+     * @param columns Column store the counted rows belong to
+     */
+    public CatalogFacets(CatalogColumns columns) {
+        this(columns, columns::getPriceCents);
+    }
+
+    /**
+     * Constructs empty facet counts over a column store, bucketing rows by the given prices.
+     *
+     * @param columns Column store the counted rows belong to
+     * @param prices Price in cents of each row, such as its price in one format
+     */
+    public CatalogFacets(CatalogColumns columns, IntToLongFunction prices) {
+        this.columns = columns;
+        this.prices = prices;
+        this.genreCounts = new int[Genre.values().length];
+        this.priceBucketCounts = new int[PriceBucket.values().length];
+        this.artistCounts = new int[0];
+    }
+
+    /**
+     * Counts the facets of the rows set in a bitmap.
+     *
+     * @param columns Column store the rows belong to
+     * @param rows Rows to count
+     * @return Facet counts of the rows
+     */
+    public static CatalogFacets of(CatalogColumns columns, RowBitmap rows) {
+        return of(columns, rows, columns::getPriceCents);
+    }
+
+    /**
+     * Counts the facets of the rows set in a bitmap, bucketing them by the given prices.
+     *
+     * @param columns Column store the rows belong to
+     * @param rows Rows to count
+     * @param prices Price in cents of each row, such as its price in one format
+     * @return Facet counts of the rows
+     */
+    public static CatalogFacets of(CatalogColumns columns, RowBitmap rows, IntToLongFunction prices) {
+        CatalogFacets facets = new CatalogFacets(columns, prices);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            facets.add(row);
+        }
+        return facets;
+    }
+
+    /**
+     * Adds a row to the counts.
+     *
+     * @param row Row of the column store
+     */
+    public void add(int row) {
+        genreCounts[columns.getGenre(row).ordinal()]++;
+        priceBucketCounts[PriceBucket.of(prices.applyAsLong(row)).ordinal()]++;
+        int artistId = columns.getArtistId(row);
+        if (artistId >= artistCounts.length) {
+            artistCounts = Arrays.copyOf(artistCounts, Math.max(artistId + 1, artistCounts.length * 2));
+        }
+        artistCounts[artistId]++;
+        total++;
+    }
+
+    /**
+     * Gets the number of counted rows.
+     *
+     * @return Total count
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of counted albums of a genre.
+     *
+     * @param genre Genre to look up
+     * @return Album count
+     */
+    public int getGenreCount(Genre genre) {
+        return genreCounts[genre.ordinal()];
+    }
+
+    /**
+     * Gets the number of counted albums in a price bucket.
+     *
+     * @param bucket Price bucket to look up
+     * @return Album count
+     */
+    public int getPriceBucketCount(PriceBucket bucket) {
+        return priceBucketCounts[bucket.ordinal()];
+    }
+
+    /**
+     * Gets the number of counted albums by an artist.
+     *
+     * @param artistId Artist id from the shared NameRegistry
+     * @return Album count
+     */
+    public int getArtistCount(int artistId) {
+        return artistId >= 0 && artistId < artistCounts.length ? artistCounts[artistId] : 0;
+    }
+
+    /**
+     * Gets the artists with the most counted albums.
+     * Ties are ordered by artist id.
+     *
+     * @param limit Maximum number of artists to return
+     * @return Artist ids, most albums first
+     */
+    public int[] topArtists(int limit) {
+        // Small insertion-sorted buffer: limit is a sidebar size, not a catalog size
+        int[] top = new int[Math.max(limit, 0)];
+        int found = 0;
+        for (int id = 0; id < artistCounts.length && top.length > 0; id++) {
+            int count = artistCounts[id];
+            if (count == 0 || (found == top.length && count <= artistCounts[top[found - 1]])) {
+                continue;
+            }
+            int i = found < top.length ? found++ : found - 1;
+            while (i > 0 && artistCounts[top[i - 1]] < count) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = id;
+        }
+        return Arrays.copyOf(top, found);
+    }
+}
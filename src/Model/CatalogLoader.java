@@ -0,0 +1,273 @@
+/**
+ * Streaming loader for catalog files in CSV format.
+ * Reads the catalog row by row and hands each product to a consumer.
+ *
+ * Key features:
+ * - Buffered NIO channel reading, independent of the file size
+ * - Products are built one row at a time, never as one big list
+ * - Malformed rows are reported and skipped without stopping the import
+ * - Products refused by the consumer as duplicates reported separately from malformed rows
+ * - Quoted fields with embedded commas and quotes
+ *
+ * File format (first line is a header):
+ * type,title,artist,genre,price,image,tracks,duration
+ * ALBUM,Greatest Hits,Queen,ROCK,29.99,queen.jpeg,,
+ * CD,OK Computer,Radiohead,ROCK,19.99,ok_computer.jpg,12,53:21
+ *
+ * @see CatalogRepository
+ * @see Album
+ * @see CD
+ */
+package Model;
+
+import Enums.Genre;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public final class CatalogLoader {
+    /** Size of the character buffer used while reading */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Maximum number of error messages kept for the report */
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    /** Number of columns in a catalog row */
+    private static final int COLUMN_COUNT = 8;
+
+    /** Error messages for rejected rows, capped at MAX_REPORTED_ERRORS */
+    private final List<String> errors = new ArrayList<>();
+
+    /** Number of products successfully loaded */
+    private int loadedCount;
+
+    /** Number of rows rejected as malformed */
+    private int rejectedCount;
+
+    /** Number of well-formed rows refused by the consumer as duplicates */
+    private int duplicateCount;
+
+    /**
+     * Loads every product of a catalog file.
+     *
+     * @param file Catalog file to read
+     * @param sink Receives each product as soon as its row is parsed;
+     *             throws IllegalArgumentException to refuse a duplicate
+     * @return Number of products loaded
+     * @throws IOException if the file cannot be read
+     */
+    public int load(Path file, Consumer<? super Product> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return load(channel, sink);
+        }
+    }
+
+    /**
+     * Loads every product from a channel holding a catalog.
+     * The channel is not closed.
+     *
+     * @param channel Channel to read the catalog from
+     * @param sink Receives each product as soon as its row is parsed;
+     *             throws IllegalArgumentException to refuse a duplicate
+     * @return Number of products loaded
+     * @throws IOException if the channel cannot be read
+     */
+    public int load(ReadableByteChannel channel, Consumer<? super Product> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(Channels.newReader(channel,
+                StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                -1), BUFFER_SIZE);
+
+        int loadedBefore = loadedCount;
+        String[] fields = new String[COLUMN_COUNT];
+        StringBuilder field = new StringBuilder();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 || line.isBlank()) {
+                continue; // Header or empty line
+            }
+            Product product;
+            try {
+                product = parseRow(line, fields, field);
+            } catch (IllegalArgumentException e) {
+                reject(lineNumber, e.getMessage());
+                continue;
+            }
+            try {
+                sink.accept(product);
+                loadedCount++;
+            } catch (IllegalArgumentException e) {
+                // Well-formed, but already registered, e.g. a duplicate SKU
+                duplicateCount++;
+                report(lineNumber, e.getMessage());
+            }
+        }
+        return loadedCount - loadedBefore;
+    }
+
+    /**
+     * Gets the number of products loaded so far.
+     *
+     * @return Loaded product count
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * Gets the number of rows rejected so far.
+     *
+     * @return Rejected row count
+     */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Gets the number of well-formed rows refused as duplicates so far.
+     *
+     * @return Duplicate row count
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Gets the messages describing rejected and duplicate rows.
+     * Only the first rejected rows are reported.
+     *
+     * @return Unmodifiable list of error messages
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    private void reject(int lineNumber, String message) {
+        rejectedCount++;
+        report(lineNumber, message);
+    }
+
+    private void report(int lineNumber, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + lineNumber + ": " + message);
+        }
+    }
+
+    private static Product parseRow(String line, String[] fields, StringBuilder field) {
+        int count = splitRow(line, fields, field);
+        if (count < 6) {
+            throw new IllegalArgumentException("expected at least 6 columns but found " + count);
+        }
+
+        String type = fields[0].trim();
+        String title = requireText(fields[1], "title");
+        String artist = requireText(fields[2], "artist");
+        Genre genre = parseGenre(fields[3]);
+        long priceCents = parsePrice(fields[4]);
+        String image = fields[5].trim();
+
+        if (type.equalsIgnoreCase("ALBUM")) {
+            return new Album(title, artist, genre, priceCents, image);
+        }
+        if (type.equalsIgnoreCase("CD")) {
+            if (count < COLUMN_COUNT) {
+                throw new IllegalArgumentException("CD rows need tracks and duration columns");
+            }
+            return new CD(title, artist, genre, priceCents, image, parseTracks(fields[6]), requireText(fields[7], "duration"));
+        }
+        throw new IllegalArgumentException("unknown product type '" + type + "'");
+    }
+
+    /**
+     * Splits a CSV row into fields, honouring double-quoted fields.
+     *
+     * @return Number of fields found
+     */
+    private static int splitRow(String line, String[] fields, StringBuilder field) {
+        int count = 0;
+        boolean quoted = false;
+        field.setLength(0);
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                count = store(fields, count, field);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        return store(fields, count, field);
+    }
+
+    private static int store(String[] fields, int count, StringBuilder field) {
+        if (count >= fields.length) {
+            throw new IllegalArgumentException("too many columns");
+        }
+        fields[count] = field.toString();
+        field.setLength(0);
+        return count + 1;
+    }
+
+    private static String requireText(String value, String column) {
+        String text = value.trim();
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("missing " + column);
+        }
+        return text;
+    }
+
+    private static Genre parseGenre(String value) {
+        try {
+            return Genre.valueOf(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown genre '" + value.trim() + "'");
+        }
+    }
+
+    private static long parsePrice(String value) {
+        try {
+            long price = Money.parse(value);
+            if (price < 0) {
+                throw new IllegalArgumentException("negative price " + value.trim());
+            }
+            return price;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid price '" + value.trim() + "'");
+        }
+    }
+
+    private static int parseTracks(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid track count '" + value.trim() + "'");
+        }
+    }
+}
@@ -0,0 +1,902 @@
+/**
+ * Shared in-memory catalog of every product sold in the music shop.
+ * Loads the inventory once and keeps hash indexes for fast lookups.
+ *
+ * Key features:
+ * - Single source of truth for albums and CDs
+ * - Inventory streamed from an external catalog file
+ * - Binary catalog rows served lazily: a product is only created when it is requested,
+ *   and only while something references it
+ * - O(1) lookups by SKU, title and artist; binary catalog rows are indexed by
+ *   title, artist and genre once, when the catalog is imported
+ * - O(k) genre browsing through an EnumMap index
+ * - Columnar album store for genre and price range scans
+ * - Genre, artist and format price facet counts maintained as albums are added
+ * - Price filters and facet counts in the price of any format
+ * - Precomputed price, title, artist and genre orderings of the albums, maintained in the background
+ * - SKU assignment for every registered product
+ * - Format variants of albums, priced by a pluggable pricing policy
+ * - Precomputed format price tables, repriced in one batch when the rules change
+ *
+ * Design Pattern: Repository Pattern
+ * - Hides how the catalog is stored and indexed
+ * - Shared by the console application and the GUI
+ *
+ * @see Product
+ * @see CatalogLoader
+ * @see Recording
+ * @see PricingEngine
+ * @see Genre
+ */
+package Model;
+
+import Enums.Format;
+import Enums.Genre;
+import Enums.SortOrder;
+import Interfaces.PricingPolicy;
+import Interfaces.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntToLongFunction;
+
+public final class CatalogRepository {
+    /** Path to the catalog file, relative to the working directory */
+    private static final String CATALOG_PATH = "src/resources/catalog.csv";
+
+    /** Path to the optional binary catalog, preferred over the CSV file it was built from while that is unchanged */
+    private static final String BINARY_CATALOG_PATH = "src/resources/catalog.bin";
+
+    /** Classpath location of the catalog file */
+    private static final String CATALOG_RESOURCE = "/resources/catalog.csv";
+
+    /** Every registered product, in registration order, after the binary catalog rows */
+    private final List<Product> products;
+
+    /** Registered albums, in registration order, after the binary catalog albums */
+    private final List<Album> albums;
+
+    /** Registered CDs, in registration order, after the binary catalog CDs */
+    private final List<CD> cds;
+
+    /** Binary catalog whose rows are served lazily, or null if none was imported */
+    private BinaryCatalog binaryCatalog;
+
+    /** Number of album rows in the binary catalog; they come first in album row order */
+    private int binaryAlbumCount;
+
+    /** Number of CD rows in the binary catalog */
+    private int binaryCdCount;
+
+    /** Binary catalog rows by normalized title, or null if no binary catalog was imported */
+    private BinaryRowIndex binaryTitles;
+
+    /** Binary catalog rows by normalized artist, or null if no binary catalog was imported */
+    private BinaryRowIndex binaryArtists;
+
+    /** Binary catalog rows of each genre, indexed by genre ordinal */
+    private int[][] binaryGenreRows;
+
+    /** Products created from binary catalog rows, by row, kept only while referenced elsewhere */
+    private final Map<Integer, RowReference> materialized;
+
+    /** Queue of collected products, purged from the materialized map */
+    private final ReferenceQueue<Product> collected;
+
+    /** Index of products by SKU */
+    private final Map<String, Product> bySku;
+
+    /** Index of products by normalized title */
+    private final Map<String, List<Product>> byTitle;
+
+    /** Index of products by normalized artist name */
+    private final Map<String, List<Product>> byArtist;
+
+    /** Index of products by genre */
+    private final EnumMap<Genre, List<Product>> byGenre;
+
+    /** Columnar copy of the albums' genre, price and artist, row = album position */
+    private final CatalogColumns albumColumns;
+
+    /** Facet counts of every album priced in each format, updated on registration and recounted when prices change */
+    private final Map<Format, PricedFacets> formatFacets;
+
+    /** Guards the format facets; separate from the repository's monitor, held while the search index builds */
+    private final Object facetsLock = new Object();
+
+    /** Sort permutations of the albums, row = album position */
+    private final CatalogSortIndex albumSortIndex;
+
+    /** Precomputed format prices of the albums, row = album position */
+    private final PricingEngine pricingEngine;
+
+    /** Pricing rules for album format variants; the pricing engine unless replaced */
+    private volatile PricingPolicy pricingPolicy;
+
+    /** Title/artist search index over the albums, rebuilt lazily after changes */
+    private volatile CatalogSearchIndex albumSearchIndex;
+
+    /**
+     * Weak reference to a product created from a binary catalog row.
+     */
+    private static final class RowReference extends WeakReference<Product> {
+        private final int row;
+
+        RowReference(Product product, int row, ReferenceQueue<Product> queue) {
+            super(product, queue);
+            this.row = row;
+        }
+    }
+
+    /**
+     * Facet counts of every album in one format, with the prices they were counted from.
+     */
+    private static final class PricedFacets {
+        private final PricingPolicy policy;
+        private final int revision;
+        private final CatalogFacets facets;
+
+        /** Number of album rows counted so far */
+        private int countedRows;
+
+        PricedFacets(PricingPolicy policy, int revision, CatalogFacets facets) {
+            this.policy = policy;
+            this.revision = revision;
+            this.facets = facets;
+        }
+    }
+
+    /**
+     * Read-only list of binary catalog rows followed by registered products.
+     * Products are created from the rows as they are requested.
+     *
+     * @param <T> Product type of the list
+     */
+    private final class RowList<T extends Product> extends AbstractList<T> implements RandomAccess {
+        private final int firstRow;
+        private final int rowCount;
+        private final int[] rows;
+        private final List<? extends T> registered;
+
+        /**
+         * Lists a range of binary rows followed by registered products.
+         */
+        RowList(int firstRow, int rowCount, List<? extends T> registered) {
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+            this.rows = null;
+            this.registered = registered;
+        }
+
+        /**
+         * Lists the given binary rows followed by registered products.
+         */
+        RowList(int[] rows, List<? extends T> registered) {
+            this.firstRow = 0;
+            this.rowCount = rows.length;
+            this.rows = rows;
+            this.registered = registered;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index >= 0 && index < rowCount) {
+                return (T) binaryProduct(rows == null ? firstRow + index : rows[index]);
+            }
+            return registered.get(index - rowCount);
+        }
+
+        @Override
+        public int size() {
+            return rowCount + registered.size();
+        }
+    }
+
+    /**
+     * Lazily initialized holder for the shared repository.
+     */
+    private static final class Holder {
+        private static final CatalogRepository INSTANCE = new CatalogRepository(true);
+    }
+
+    /**
+     * Constructs an empty repository.
+     * Products can be registered with {@link #addProduct(Product)}.
+     */
+    public CatalogRepository() {
+        this(false);
+    }
+
+    /**
+     * Constructs a repository, optionally filled with the shop's inventory.
+     *
+     * @param loadInventory true to register the default inventory
+     */
+    private CatalogRepository(boolean loadInventory) {
+        products = new ArrayList<>();
+        albums = new ArrayList<>();
+        cds = new ArrayList<>();
+        bySku = new HashMap<>();
+        byTitle = new HashMap<>();
+        byArtist = new HashMap<>();
+        byGenre = new EnumMap<>(Genre.class);
+        materialized = new ConcurrentHashMap<>();
+        collected = new ReferenceQueue<>();
+        albumColumns = new CatalogColumns();
+        formatFacets = new EnumMap<>(Format.class);
+        albumSortIndex = new CatalogSortIndex(albumColumns);
+        pricingEngine = new PricingEngine(albumColumns);
+        pricingPolicy = pricingEngine;
+        for (Genre genre : Genre.values()) {
+            byGenre.put(genre, new ArrayList<>());
+        }
+        if (loadInventory) {
+            initializeCatalog();
+        }
+    }
+
+    /**
+     * Gets the catalog shared by the whole application.
+     * The inventory is loaded on first access.
+     *
+     * @return The shared catalog repository
+     */
+    public static CatalogRepository getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Loads the shop's inventory from the catalog file.
+     * A binary catalog is used when one has been generated from the current catalog file.
+     * Falls back to the copy on the classpath when the working-directory file is missing.
+     */
+    private void initializeCatalog() {
+        try {
+            Path file = Paths.get(CATALOG_PATH);
+            Path binaryFile = Paths.get(BINARY_CATALOG_PATH);
+            if (Files.exists(binaryFile)) {
+                try {
+                    BinaryCatalog catalog = BinaryCatalog.open(binaryFile);
+                    if (!Files.exists(file) || catalog.isBuiltFrom(file)) {
+                        importCatalog(catalog);
+                        return;
+                    }
+                    System.err.println("Ignoring " + BINARY_CATALOG_PATH + ": " + CATALOG_PATH
+                            + " has changed since it was generated");
+                } catch (IOException e) {
+                    System.err.println("Ignoring " + BINARY_CATALOG_PATH + ": " + e.getMessage());
+                }
+            }
+            if (Files.exists(file)) {
+                reportImport(importCatalog(file), CATALOG_PATH);
+                return;
+            }
+            InputStream resource = CatalogRepository.class.getResourceAsStream(CATALOG_RESOURCE);
+            if (resource == null) {
+                System.err.println("Catalog file not found: " + CATALOG_PATH);
+                return;
+            }
+            try (ReadableByteChannel channel = Channels.newChannel(resource)) {
+                CatalogLoader loader = new CatalogLoader();
+                loader.load(channel, this::addProduct);
+                reportImport(loader, CATALOG_RESOURCE);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading catalog: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imports every product of a catalog file into this repository.
+     * Malformed and duplicate rows are skipped and reported by the returned loader.
+     *
+     * @param file Catalog file to import
+     * @return The loader, holding the import counts and error report
+     * @throws IOException if the file cannot be read
+     */
+    public CatalogLoader importCatalog(Path file) throws IOException {
+        CatalogLoader loader = new CatalogLoader();
+        loader.load(file, this::addProduct);
+        return loader;
+    }
+
+    /**
+     * Imports every product of a binary catalog into this repository.
+     * Into an empty repository, only the album columns are filled; products are
+     * created from the mapped rows when they are requested. Otherwise every row
+     * is registered as a product.
+     *
+     * @param catalog Opened binary catalog
+     */
+    public void importCatalog(BinaryCatalog catalog) {
+        if (binaryCatalog != null || !products.isEmpty()) {
+            for (int row = 0; row < catalog.size(); row++) {
+                addProduct(catalog.getProduct(row));
+            }
+            return;
+        }
+
+        // The title and artist row indexes are built alongside the album columns
+        CompletableFuture<BinaryRowIndex> titles = CompletableFuture.supplyAsync(() ->
+                new BinaryRowIndex(catalog, catalog.size(), catalog::getTitleStringId, CatalogRepository::normalize));
+        CompletableFuture<BinaryRowIndex> artists = CompletableFuture.supplyAsync(() ->
+                new BinaryRowIndex(catalog, catalog.size(), catalog::getArtistStringId, CatalogRepository::normalize));
+
+        // Binary string ids, resolved to registry ids once each
+        NameRegistry registry = NameRegistry.getInstance();
+        int[] nameIds = new int[catalog.getStringCount()];
+        Arrays.fill(nameIds, NameRegistry.UNKNOWN);
+        int albumCount = catalog.getAlbumCount();
+        for (int row = 0; row < albumCount; row++) {
+            int titleId = registryId(catalog, catalog.getTitleStringId(row), nameIds, registry);
+            int artistId = registryId(catalog, catalog.getArtistStringId(row), nameIds, registry);
+            albumColumns.add(catalog.getGenre(row), catalog.getPriceCents(row), titleId, artistId);
+        }
+        binaryGenreRows = genreRows(catalog);
+        binaryTitles = titles.join();
+        binaryArtists = artists.join();
+        binaryCatalog = catalog;
+        binaryAlbumCount = albumCount;
+        binaryCdCount = catalog.size() - albumCount;
+        pricingEngine.rowsAdded();
+        updateFormatFacets();
+        albumSortIndex.rowsAdded();
+        albumSearchIndex = null;
+    }
+
+    /**
+     * Groups the rows of a binary catalog by genre, in row order.
+     */
+    private static int[][] genreRows(BinaryCatalog catalog) {
+        int[] counts = new int[Genre.values().length];
+        for (int row = 0; row < catalog.size(); row++) {
+            counts[catalog.getGenre(row).ordinal()]++;
+        }
+        int[][] rows = new int[counts.length][];
+        for (int genre = 0; genre < counts.length; genre++) {
+            rows[genre] = new int[counts[genre]];
+            counts[genre] = 0;
+        }
+        for (int row = 0; row < catalog.size(); row++) {
+            int genre = catalog.getGenre(row).ordinal();
+            rows[genre][counts[genre]++] = row;
+        }
+        return rows;
+    }
+
+    private static int registryId(BinaryCatalog catalog, int stringId, int[] nameIds, NameRegistry registry) {
+        if (nameIds[stringId] == NameRegistry.UNKNOWN) {
+            nameIds[stringId] = registry.intern(catalog.string(stringId));
+        }
+        return nameIds[stringId];
+    }
+
+    /**
+     * Gets the product stored in a binary catalog row, creating it if no one references it yet.
+     * Every caller gets the same instance for as long as any of them holds it.
+     */
+    private Product binaryProduct(int row) {
+        for (RowReference stale; (stale = (RowReference) collected.poll()) != null; ) {
+            materialized.remove(stale.row, stale);
+        }
+        RowReference reference = materialized.get(row);
+        Product product = reference == null ? null : reference.get();
+        if (product != null) {
+            return product;
+        }
+        Product[] result = new Product[1];
+        materialized.compute(row, (key, current) -> {
+            Product existing = current == null ? null : current.get();
+            if (existing != null) {
+                result[0] = existing;
+                return current;
+            }
+            Product created = binaryCatalog.getProduct(row);
+            if (row < binaryAlbumCount) {
+                created.setSku(sku("ALB-", row + 1));
+                ((Album) created).setCatalogRow(row);
+            } else {
+                created.setSku(sku("CD-", row - binaryAlbumCount + 1));
+            }
+            result[0] = created;
+            return new RowReference(created, row, collected);
+        });
+        return result[0];
+    }
+
+    /**
+     * Finds the binary catalog row of a SKU assigned to one of its products.
+     *
+     * @return The row, or -1 if the SKU does not belong to the binary catalog
+     */
+    private int binaryRow(String sku) {
+        if (binaryCatalog == null || sku == null) {
+            return -1;
+        }
+        boolean isCD = sku.startsWith("CD-");
+        if (!isCD && !sku.startsWith("ALB-")) {
+            return -1;
+        }
+        String digits = sku.substring(isCD ? 3 : 4);
+        if (digits.isEmpty() || digits.length() > 9 || !digits.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return -1;
+        }
+        int number = Integer.parseInt(digits);
+        if (!sku.equals(sku(isCD ? "CD-" : "ALB-", number))) {
+            return -1;
+        }
+        if (isCD) {
+            return number >= 1 && number <= binaryCdCount ? binaryAlbumCount + number - 1 : -1;
+        }
+        return number >= 1 && number <= binaryAlbumCount ? number - 1 : -1;
+    }
+
+    private static String sku(String prefix, int number) {
+        return prefix + String.format("%06d", number);
+    }
+
+    private static void reportImport(CatalogLoader loader, String source) {
+        if (loader.getRejectedCount() > 0 || loader.getDuplicateCount() > 0) {
+            System.err.println("Skipped " + loader.getRejectedCount() + " malformed and "
+                    + loader.getDuplicateCount() + " duplicate rows in " + source + ":");
+            loader.getErrors().forEach(error -> System.err.println("  " + error));
+        }
+    }
+
+    /**
+     * Registers a product in the catalog and updates every index.
+     * A SKU is assigned if the product does not have one yet.
+     *
+     * @param product Product to register
+     * @throws IllegalArgumentException if the product's SKU is already registered
+     */
+    public void addProduct(Product product) {
+        if (product.getSku() == null) {
+            String prefix = product instanceof CD ? "CD-" : "ALB-";
+            int number = product instanceof CD ? binaryCdCount + cds.size() + 1 : binaryAlbumCount + albums.size() + 1;
+            product.setSku(sku(prefix, number));
+        }
+        if (binaryRow(product.getSku()) >= 0 || bySku.putIfAbsent(product.getSku(), product) != null) {
+            throw new IllegalArgumentException("Duplicate SKU: " + product.getSku());
+        }
+
+        products.add(product);
+        if (product instanceof Album) {
+            Album album = (Album) product;
+            albums.add(album);
+            int row = albumColumns.add(album);
+            album.setCatalogRow(row);
+            pricingEngine.rowsAdded();
+            updateFormatFacets();
+            albumSortIndex.rowsAdded();
+            albumSearchIndex = null;
+        } else if (product instanceof CD) {
+            cds.add((CD) product);
+        }
+
+        byTitle.computeIfAbsent(normalize(product.getName()), k -> new ArrayList<>(1)).add(product);
+        if (product instanceof Recording) {
+            Recording recording = (Recording) product;
+            byArtist.computeIfAbsent(normalize(recording.getArtist()), k -> new ArrayList<>(1)).add(product);
+            byGenre.get(recording.getGenre()).add(product);
+        }
+    }
+
+    /**
+     * Finds a product by its SKU.
+     * Format variant SKUs such as "ALB-000001-CD" resolve to the album's variant.
+     *
+     * @param sku SKU to look up
+     * @return The matching product, or null if none is registered
+     */
+    public Product findBySku(String sku) {
+        Product product = lookupSku(sku);
+        if (product == null && sku != null) {
+            int separator = sku.lastIndexOf('-');
+            if (separator > 0) {
+                Product base = lookupSku(sku.substring(0, separator));
+                Format format = Format.fromSkuSuffix(sku.substring(separator + 1));
+                if (base instanceof Album && format != null) {
+                    product = getVariant((Album) base, format);
+                }
+            }
+        }
+        return product;
+    }
+
+    private Product lookupSku(String sku) {
+        int row = binaryRow(sku);
+        return row >= 0 ? binaryProduct(row) : bySku.get(sku);
+    }
+
+    /**
+     * Gets an album in a given format.
+     * Every caller gets the same variant instance for an album and format.
+     *
+     * @param album Album to sell
+     * @param format Format to sell it in
+     * @return The album's format variant
+     */
+    public FormatVariant getVariant(Album album, Format format) {
+        return album.variant(format, this);
+    }
+
+    /**
+     * Gets the engine holding the precomputed album format prices.
+     * Changing its rules reprices the whole catalog.
+     *
+     * @return The catalog's pricing engine
+     */
+    public PricingEngine getPricingEngine() {
+        return pricingEngine;
+    }
+
+    /**
+     * Gets the pricing rules used for album format variants.
+     *
+     * @return Current pricing policy
+     */
+    public PricingPolicy getPricingPolicy() {
+        return pricingPolicy;
+    }
+
+    /**
+     * Replaces the pricing rules used for album format variants.
+     * Existing variants are priced by the new rules immediately.
+     *
+     * @param pricingPolicy New pricing policy
+     */
+    public void setPricingPolicy(PricingPolicy pricingPolicy) {
+        this.pricingPolicy = pricingPolicy;
+    }
+
+    /**
+     * Finds every product with the given title, ignoring case.
+     * The same title may exist in several formats.
+     *
+     * @param title Title to look up
+     * @return Unmodifiable list of matching products
+     */
+    public List<Product> findByTitle(String title) {
+        String key = normalize(title);
+        List<Product> registered = unmodifiable(byTitle.get(key));
+        if (binaryCatalog == null) {
+            return registered;
+        }
+        return new RowList<>(binaryTitles.rows(key), registered);
+    }
+
+    /**
+     * Finds every product by the given artist, ignoring case.
+     *
+     * @param artist Artist name to look up
+     * @return Unmodifiable list of matching products
+     */
+    public List<Product> findByArtist(String artist) {
+        String key = normalize(artist);
+        List<Product> registered = unmodifiable(byArtist.get(key));
+        if (binaryCatalog == null) {
+            return registered;
+        }
+        return new RowList<>(binaryArtists.rows(key), registered);
+    }
+
+    /**
+     * Gets every product of the given genre.
+     *
+     * @param genre Genre to browse
+     * @return Unmodifiable list of matching products
+     */
+    public List<Product> getByGenre(Genre genre) {
+        List<Product> registered = Collections.unmodifiableList(byGenre.get(genre));
+        if (binaryCatalog == null) {
+            return registered;
+        }
+        return new RowList<>(binaryGenreRows[genre.ordinal()], registered);
+    }
+
+    /**
+     * Gets the distinct cover image file names of every product,
+     * without creating products for binary catalog rows.
+     *
+     * @return Image file names in use
+     */
+    public Set<String> getImageFileNames() {
+        Set<String> fileNames = binaryCatalog == null ? new HashSet<>() : binaryCatalog.getImageFileNames();
+        for (Product product : products) {
+            fileNames.add(product.getImageFileName());
+        }
+        return fileNames;
+    }
+
+    /**
+     * Finds every product showing the given cover image.
+     * Binary catalog rows are found with a column scan.
+     *
+     * @param imageFileName Image file name to look up
+     * @return Unmodifiable list of matching products
+     */
+    public List<Product> findByImageFileName(String imageFileName) {
+        List<Product> registered = new ArrayList<>();
+        for (Product product : products) {
+            if (imageFileName.equals(product.getImageFileName())) {
+                registered.add(product);
+            }
+        }
+        if (binaryCatalog == null) {
+            return Collections.unmodifiableList(registered);
+        }
+        return new RowList<>(binaryCatalog.findRowsByImageFileName(imageFileName::equals), registered);
+    }
+
+    /**
+     * Gets every album. Album positions in the list are the album rows used by
+     * the column store, search index and sort index; binary catalog albums
+     * are created as they are requested.
+     *
+     * @return Unmodifiable list of albums
+     */
+    public List<Album> getAlbums() {
+        if (binaryCatalog == null) {
+            return Collections.unmodifiableList(albums);
+        }
+        return new RowList<>(0, binaryAlbumCount, Collections.unmodifiableList(albums));
+    }
+
+    /**
+     * Gets the number of albums, without creating any.
+     *
+     * @return Album count, one more than the highest album row
+     */
+    public int getAlbumCount() {
+        return binaryAlbumCount + albums.size();
+    }
+
+    /**
+     * Gets the album stored in an album row, creating it if it comes from the binary catalog.
+     *
+     * @param row Album row, as returned by the column store, search index or sort index
+     * @return The album
+     * @throws IndexOutOfBoundsException if the row does not exist
+     */
+    public Album getAlbum(int row) {
+        if (row >= 0 && row < binaryAlbumCount) {
+            return (Album) binaryProduct(row);
+        }
+        return albums.get(row - binaryAlbumCount);
+    }
+
+    /**
+     * Gets the title/artist search index over the registered albums.
+     * Positions returned by the index are indexes into {@link #getAlbums()}.
+     * The index is built on first use and after albums are added.
+     *
+     * @return Album search index
+     */
+    public CatalogSearchIndex getAlbumSearchIndex() {
+        CatalogSearchIndex index = albumSearchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = albumSearchIndex;
+                if (index == null) {
+                    index = new CatalogSearchIndex(albumColumns);
+                    albumSearchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the columnar store of the registered albums, used for fast filtering.
+     * Row numbers in the store are indexes into {@link #getAlbums()}.
+     *
+     * @return Album column store
+     */
+    public CatalogColumns getAlbumColumns() {
+        return albumColumns;
+    }
+
+    /**
+     * Counts the facets of a subset of the albums, such as a search result.
+     * Only the rows set in the bitmap are visited.
+     *
+     * @param rows Album rows to count, as returned by the column store or search index
+     * @return Facet counts of the rows
+     */
+    public CatalogFacets getAlbumFacets(RowBitmap rows) {
+        return CatalogFacets.of(albumColumns, rows);
+    }
+
+    /**
+     * Gets the facet counts of every album, with price buckets in a format's price.
+     * The counts are kept up to date as albums are added, and recounted only
+     * after the whole catalog is repriced or the pricing policy is replaced.
+     *
+     * @param format Format whose prices are bucketed
+     * @return Facet counts of the whole album catalog
+     */
+    public CatalogFacets getAlbumFacets(Format format) {
+        synchronized (facetsLock) {
+            PricingPolicy policy = pricingPolicy;
+            int revision = pricingEngine.getRevision();
+            PricedFacets cached = formatFacets.get(format);
+            if (cached == null || cached.policy != policy || cached.revision != revision) {
+                cached = new PricedFacets(policy, revision, new CatalogFacets(albumColumns, formatPrices(format)));
+                formatFacets.put(format, cached);
+            }
+            countPricedRows(cached);
+            return cached.facets;
+        }
+    }
+
+    /**
+     * Adds newly priced album rows to the format facets that are still current.
+     * Facets counted from replaced prices are left to be recounted when next requested.
+     */
+    private void updateFormatFacets() {
+        synchronized (facetsLock) {
+            PricingPolicy policy = pricingPolicy;
+            int revision = pricingEngine.getRevision();
+            for (PricedFacets cached : formatFacets.values()) {
+                if (cached.policy == policy && cached.revision == revision) {
+                    countPricedRows(cached);
+                }
+            }
+        }
+    }
+
+    private void countPricedRows(PricedFacets cached) {
+        int priced = pricingEngine.getPricedRows();
+        for (int row = cached.countedRows; row < priced; row++) {
+            cached.facets.add(row);
+        }
+        cached.countedRows = priced;
+    }
+
+    /**
+     * Counts the facets of a subset of the albums, with price buckets in a format's price.
+     *
+     * @param rows Album rows to count, as returned by the column store or search index
+     * @param format Format whose prices are bucketed
+     * @return Facet counts of the rows
+     */
+    public CatalogFacets getAlbumFacets(RowBitmap rows, Format format) {
+        return CatalogFacets.of(albumColumns, rows, formatPrices(format));
+    }
+
+    /**
+     * Finds the albums of a genre whose price in a format is within a range.
+     *
+     * @param genre Genre to match, or null to match every genre
+     * @param format Format whose prices are compared
+     * @param minPriceCents Lowest matching price in cents, inclusive
+     * @param maxPriceCents Highest matching price in cents, exclusive
+     * @return Bitmap of the matching album rows
+     */
+    public RowBitmap filterAlbums(Genre genre, Format format, long minPriceCents, long maxPriceCents) {
+        RowBitmap rows = albumColumns.filter(genre, 0, Long.MAX_VALUE);
+        if (pricingPolicy == pricingEngine && pricingEngine.getPricedRows() == rows.size()) {
+            return rows.and(pricingEngine.filter(format, minPriceCents, maxPriceCents));
+        }
+        IntToLongFunction prices = formatPrices(format);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            long price = prices.applyAsLong(row);
+            if (price < minPriceCents || price >= maxPriceCents) {
+                rows.clear(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the price of each album row in a format, from the engine's tables
+     * unless another pricing policy is in effect.
+     */
+    private IntToLongFunction formatPrices(Format format) {
+        PricingPolicy policy = pricingPolicy;
+        if (policy == pricingEngine) {
+            return row -> pricingEngine.priceOf(row, format);
+        }
+        return row -> policy.priceOf(getAlbum(row), format);
+    }
+
+    /**
+     * Lists album rows in a given order, walking a precomputed permutation.
+     * For example, the cheapest 50 jazz records are
+     * getSortedAlbumRows(SortOrder.PRICE, columns.filter(Genre.JAZZ, 0, Long.MAX_VALUE), 50).
+     *
+     * @param order Ordering of the result
+     * @param rows Album rows to include, or null to include every album
+     * @param limit Maximum number of rows to return
+     * @return Album rows (indexes into {@link #getAlbums()}) in the requested order
+     */
+    public int[] getSortedAlbumRows(SortOrder order, RowBitmap rows, int limit) {
+        return albumSortIndex.sortedRows(order, rows, limit);
+    }
+
+    /**
+     * Checks whether the sorted album orders cover every album.
+     * Albums added recently are sorted in the background; until then they are
+     * listed after the sorted ones, in catalog order.
+     *
+     * @return true if every album is sorted
+     */
+    public boolean areAlbumsSorted() {
+        return albumSortIndex.isCurrent();
+    }
+
+    /**
+     * Runs an action once every album added so far is sorted.
+     * The action runs immediately if they already are, otherwise on the background sorting thread.
+     *
+     * @param action Action to run
+     */
+    public void whenAlbumsSorted(Runnable action) {
+        albumSortIndex.whenCurrent(action);
+    }
+
+    /**
+     * Gets every CD; binary catalog CDs are created as they are requested.
+     *
+     * @return Unmodifiable list of CDs
+     */
+    public List<CD> getCDs() {
+        if (binaryCatalog == null) {
+            return Collections.unmodifiableList(cds);
+        }
+        return new RowList<>(binaryAlbumCount, binaryCdCount, Collections.unmodifiableList(cds));
+    }
+
+    /**
+     * Gets every product: the binary catalog rows, then the registered products.
+     * Binary catalog products are created as they are requested.
+     *
+     * @return Unmodifiable list of products
+     */
+    public List<Product> getAllProducts() {
+        if (binaryCatalog == null) {
+            return Collections.unmodifiableList(products);
+        }
+        return new RowList<>(0, binaryCatalog.size(), Collections.unmodifiableList(products));
+    }
+
+    /**
+     * Gets the number of products in the catalog.
+     *
+     * @return Catalog size
+     */
+    public int size() {
+        return (binaryCatalog == null ? 0 : binaryCatalog.size()) + products.size();
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Product> unmodifiable(List<Product> list) {
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Prefix index over the titles and artists of catalog recordings.
+ * Supports search-as-you-type over very large catalogs.
+ *
+ * Key features:
+ * - Sorted term dictionary with posting lists of catalog positions
+ * - Prefix matching of every query word against title and artist words
+ * - Full results as a RowBitmap, for exact counts, facet filtering and sorting
+ * - Cooperative cancellation through thread interruption
+ *
+ * Design Pattern: Inverted Index
+ * - Built once from an immutable snapshot of the catalog
+ * - Safe to query from background threads
+ *
+ * @see CatalogRepository
+ * @see Recording
+ */
+package Model;
+
+import Interfaces.Recording;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+public final class CatalogSearchIndex {
+    /** Number of postings visited between interruption checks */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    /** Sorted, distinct search terms */
+    private final String[] terms;
+
+    /** Catalog positions containing each term, in ascending order */
+    private final int[][] postings;
+
+    /** Sorted term ids of every indexed item, used to verify multi-word queries */
+    private final int[][] itemTerms;
+
+    /**
+     * Builds a search index over the given recordings.
+     * Positions returned by {@link #searchAll(String)} are indexes into this list.
+     *
+     * @param items Recordings to index
+     */
+    public CatalogSearchIndex(List<? extends Recording> items) {
+        this(items.size(), i -> items.get(i).getTitle() + " " + items.get(i).getArtist());
+    }
+
+    /**
+     * Builds a search index over the rows of a column store, without creating any recording.
+     * Positions returned by {@link #searchAll(String)} are rows of the store.
+     *
+     * @param columns Column store to index, holding the title and artist ids of each row
+     */
+    public CatalogSearchIndex(CatalogColumns columns) {
+        this(columns.size(), row -> {
+            NameRegistry registry = NameRegistry.getInstance();
+            return registry.name(columns.getTitleId(row)) + " " + registry.name(columns.getArtistId(row));
+        });
+    }
+
+    private CatalogSearchIndex(int size, IntFunction<String> text) {
+        String[][] tokens = new String[size][];
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            tokens[i] = distinctTokens(text.apply(i));
+            for (String token : tokens[i]) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+        }
+
+        terms = frequencies.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        Map<String, Integer> termIds = new HashMap<>(terms.length * 2);
+        postings = new int[terms.length][];
+        for (int t = 0; t < terms.length; t++) {
+            termIds.put(terms[t], t);
+            postings[t] = new int[frequencies.get(terms[t])];
+        }
+
+        int[] fill = new int[terms.length];
+        itemTerms = new int[size][];
+        for (int i = 0; i < size; i++) {
+            int[] ids = new int[tokens[i].length];
+            for (int k = 0; k < ids.length; k++) {
+                int termId = termIds.get(tokens[i][k]);
+                ids[k] = termId;
+                postings[termId][fill[termId]++] = i;
+            }
+            Arrays.sort(ids);
+            itemTerms[i] = ids;
+        }
+    }
+
+    /**
+     * Finds every recording whose title or artist contains a word starting with
+     * every word of the query, for counting and filtering a whole result.
+     * Returns early with the matches found so far if the calling thread is interrupted.
+     *
+     * @param query Free text typed by the user
+     * @return Bitmap of the matching catalog positions, sized to the indexed items
+     */
+    public RowBitmap searchAll(String query) {
+        RowBitmap matches = new RowBitmap(itemTerms.length);
+        String[] words = distinctTokens(query);
+        if (words.length == 0) {
+            return matches;
+        }
+        int[] from = new int[words.length];
+        int[] to = new int[words.length];
+        int driver = resolve(words, from, to);
+        if (driver < 0) {
+            return matches;
+        }
+
+        // The bitmap removes duplicates from postings of several matching terms
+        int visited = 0;
+        for (int t = from[driver]; t < to[driver]; t++) {
+            for (int item : postings[t]) {
+                if (++visited % CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                    return matches;
+                }
+                if (matchesAll(item, from, to, driver)) {
+                    matches.set(item);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Resolves every query word to the range of terms it is a prefix of.
+     *
+     * @return Index of the word with the fewest postings, or -1 if a word matches no term
+     */
+    private int resolve(String[] words, int[] from, int[] to) {
+        int driver = 0;
+        long driverCost = Long.MAX_VALUE;
+        for (int w = 0; w < words.length; w++) {
+            from[w] = lowerBound(words[w]);
+            to[w] = lowerBound(words[w] + Character.MAX_VALUE);
+            if (from[w] == to[w]) {
+                return -1;
+            }
+            long cost = 0;
+            for (int t = from[w]; t < to[w] && cost < driverCost; t++) {
+                cost += postings[t].length;
+            }
+            if (cost < driverCost) {
+                driverCost = cost;
+                driver = w;
+            }
+        }
+        return driver;
+    }
+
+    /**
+     * Gets the number of distinct terms in the index.
+     *
+     * @return Dictionary size
+     */
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    private boolean matchesAll(int item, int[] from, int[] to, int skip) {
+        int[] ids = itemTerms[item];
+        for (int w = 0; w < from.length; w++) {
+            if (w == skip) {
+                continue;
+            }
+            int pos = Arrays.binarySearch(ids, from[w]);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            if (pos >= ids.length || ids[pos] >= to[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Splits text into distinct lower-case words of letters and digits.
+     *
+     * @param text Text to split
+     * @return Distinct words in order of first appearance
+     */
+    static String[] distinctTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text != null) {
+            String lower = text.toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= lower.length(); i++) {
+                boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    String token = lower.substring(start, i);
+                    if (!tokens.contains(token)) {
+                        tokens.add(token);
+                    }
+                    start = -1;
+                }
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,350 @@
+/**
+ * Precomputed sort permutations over the rows of a catalog column store.
+ * Keeps one int[] of row numbers per ordering, so views can switch order
+ * without sorting and top-N queries become a walk over a permutation.
+ *
+ * Key features:
+ * - Permutations by price, title, artist and genre
+ * - Incremental maintenance: rows added since the last update are sorted on
+ *   their own and merged in by binary search instead of re-sorting everything
+ * - Updates run on a background thread and are published in one swap; reads
+ *   never sort, and list rows not merged yet in catalog order
+ * - Top-N queries restricted to a RowBitmap, e.g. "cheapest 50 jazz records"
+ * - Total orders with the row number as final tie-breaker, so results are stable
+ *
+ * @see CatalogColumns
+ * @see SortOrder
+ * @see RowBitmap
+ */
+package Model;
+
+import Enums.SortOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class CatalogSortIndex {
+    /** Orderings kept as permutations; the others are derived from them */
+    private static final SortOrder[] SORTED_ORDERS = {
+        SortOrder.PRICE, SortOrder.TITLE, SortOrder.ARTIST, SortOrder.GENRE
+    };
+
+    /**
+     * Ordering of two rows of the column store.
+     */
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Permutations published together with the number of rows they cover.
+     */
+    private static final class Snapshot {
+        private final Map<SortOrder, int[]> permutations;
+        private final int sortedRows;
+
+        Snapshot(Map<SortOrder, int[]> permutations, int sortedRows) {
+            this.permutations = permutations;
+            this.sortedRows = sortedRows;
+        }
+    }
+
+    /** Column store the permutations are over */
+    private final CatalogColumns columns;
+
+    /** Names behind the title and artist ids */
+    private final NameRegistry names = NameRegistry.getInstance();
+
+    /** Current permutations; replaced, never modified, by each update */
+    private volatile Snapshot snapshot;
+
+    /** Background thread merging added rows into the permutations */
+    private final ExecutorService sorter;
+
+    /** Whether an update is queued on the sorter and has not started yet */
+    private final AtomicBoolean updateQueued = new AtomicBoolean();
+
+    /** Actions waiting for the permutations to cover every row */
+    private final List<Runnable> currentListeners = new ArrayList<>();
+
+    /**
+     * Constructs the permutations for every row currently in a column store.
+     * Rows added later are merged in the background after {@link #rowsAdded()}.
+     *
+     * @param columns Column store to sort
+     */
+    public CatalogSortIndex(CatalogColumns columns) {
+        this.columns = columns;
+        Map<SortOrder, int[]> empty = new EnumMap<>(SortOrder.class);
+        for (SortOrder order : SORTED_ORDERS) {
+            empty.put(order, new int[0]);
+        }
+        this.snapshot = new Snapshot(empty, 0);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "catalog-sort");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.sorter = executor;
+        update();
+    }
+
+    /**
+     * Creates the comparator of an ordering.
+     *
+     * @param order Stored ordering
+     * @param nameOrder Ordering of two title or artist ids
+     * @return Row comparator of the ordering
+     */
+    private RowComparator comparator(SortOrder order, RowComparator nameOrder) {
+        RowComparator titles = (a, b) -> nameOrder.compare(columns.getTitleId(a), columns.getTitleId(b));
+        switch (order) {
+            case PRICE:
+                return (a, b) -> Long.compare(columns.getPriceCents(a), columns.getPriceCents(b));
+            case ARTIST:
+                return (a, b) -> {
+                    int result = nameOrder.compare(columns.getArtistId(a), columns.getArtistId(b));
+                    return result != 0 ? result : titles.compare(a, b);
+                };
+            case GENRE:
+                return (a, b) -> {
+                    int result = columns.getGenre(a).compareTo(columns.getGenre(b));
+                    return result != 0 ? result : titles.compare(a, b);
+                };
+            case TITLE:
+            default:
+                return titles;
+        }
+    }
+
+    private int compareNames(int a, int b) {
+        return a == b ? 0 : String.CASE_INSENSITIVE_ORDER.compare(names.name(a), names.name(b));
+    }
+
+    /**
+     * Lists rows in a given order, walking the current permutation; nothing is sorted here.
+     * Rows not merged into the permutations yet follow the sorted ones in catalog order,
+     * so until the first update completes every order lists the catalog order.
+     *
+     * @param order Ordering of the result
+     * @param filter Rows to include, or null to include every row
+     * @param limit Maximum number of rows to return
+     * @return Matching rows in the requested order, at most limit of them
+     */
+    public int[] sortedRows(SortOrder order, RowBitmap filter, int limit) {
+        Snapshot current = snapshot;
+        int size = filter == null ? columns.size() : Math.min(columns.size(), filter.size());
+        int[] result = new int[Math.min(limit, filter == null ? size : filter.cardinality())];
+        int count = 0;
+        int sorted = order == SortOrder.CATALOG ? 0 : Math.min(current.sortedRows, size);
+
+        if (sorted > 0) {
+            boolean descending = order == SortOrder.PRICE_DESCENDING;
+            int[] permutation = current.permutations.get(descending ? SortOrder.PRICE : order);
+            int length = current.sortedRows;
+            for (int i = 0; i < length && count < result.length; i++) {
+                int row = permutation[descending ? length - 1 - i : i];
+                if (row < size && (filter == null || filter.get(row))) {
+                    result[count++] = row;
+                }
+            }
+        }
+        for (int row = sorted; row < size && count < result.length; row++) {
+            if (filter == null || filter.get(row)) {
+                result[count++] = row;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Checks whether every row of the column store is merged into the permutations.
+     *
+     * @return true if sorted orders are complete
+     */
+    public boolean isCurrent() {
+        return snapshot.sortedRows == columns.size();
+    }
+
+    /**
+     * Runs an action once every row added so far is merged into the permutations.
+     * The action runs immediately if they already are, otherwise on the sorting thread.
+     *
+     * @param action Action to run
+     */
+    public void whenCurrent(Runnable action) {
+        synchronized (currentListeners) {
+            if (!isCurrent()) {
+                currentListeners.add(action);
+                rowsAdded();
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Schedules the rows appended to the column store to be merged in the background.
+     * Called by the catalog after adding rows; calls made while an update is
+     * queued are folded into it.
+     */
+    void rowsAdded() {
+        if (updateQueued.compareAndSet(false, true)) {
+            sorter.execute(() -> {
+                // Cleared before reading the size, so rows added during the update queue another
+                updateQueued.set(false);
+                update();
+            });
+        }
+    }
+
+    /**
+     * Merges rows appended to the column store since the last update.
+     * The new rows are sorted on their own using precomputed name ranks,
+     * then inserted into each permutation by binary search. The merged
+     * permutations are published in a single swap.
+     */
+    synchronized void update() {
+        Snapshot current = snapshot;
+        int size = columns.size();
+        if (size != current.sortedRows) {
+            int[] newRows = new int[size - current.sortedRows];
+            for (int i = 0; i < newRows.length; i++) {
+                newRows[i] = current.sortedRows + i;
+            }
+            int[] nameRanks = rankNames(newRows);
+            RowComparator rankedNames = (a, b) -> Integer.compare(nameRanks[a], nameRanks[b]);
+            Map<SortOrder, int[]> merged = new EnumMap<>(SortOrder.class);
+            for (SortOrder order : SORTED_ORDERS) {
+                int[] sorted = newRows.clone();
+                sort(sorted, comparator(order, rankedNames));
+                merged.put(order, merge(current.permutations.get(order), sorted, comparator(order, this::compareNames)));
+            }
+            snapshot = new Snapshot(merged, size);
+        }
+
+        List<Runnable> ready;
+        synchronized (currentListeners) {
+            if (currentListeners.isEmpty() || !isCurrent()) {
+                return;
+            }
+            ready = new ArrayList<>(currentListeners);
+            currentListeners.clear();
+        }
+        ready.forEach(Runnable::run);
+    }
+
+    /**
+     * Ranks the title and artist names of a batch of rows, so sorting the batch
+     * compares ints instead of strings. Names equal ignoring case share a rank.
+     *
+     * @param rows Rows of the batch
+     * @return Rank of every name used by the batch, indexed by registry id
+     */
+    private int[] rankNames(int[] rows) {
+        int maxId = -1;
+        for (int row : rows) {
+            maxId = Math.max(maxId, Math.max(columns.getTitleId(row), columns.getArtistId(row)));
+        }
+        int[] ranks = new int[maxId + 1];
+        Arrays.fill(ranks, -1);
+        int[] ids = new int[rows.length * 2];
+        int count = 0;
+        for (int row : rows) {
+            count = collect(columns.getTitleId(row), ranks, ids, count);
+            count = collect(columns.getArtistId(row), ranks, ids, count);
+        }
+        ids = Arrays.copyOf(ids, count);
+        sort(ids, this::compareNames);
+        int rank = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0 && compareNames(ids[i - 1], ids[i]) != 0) {
+                rank++;
+            }
+            ranks[ids[i]] = rank;
+        }
+        return ranks;
+    }
+
+    private static int collect(int id, int[] ranks, int[] ids, int count) {
+        if (ranks[id] < 0) {
+            ranks[id] = 0;
+            ids[count++] = id;
+        }
+        return count;
+    }
+
+    /**
+     * Compares two rows, falling back to the row number so the order is total.
+     */
+    private static int compare(RowComparator comparator, int a, int b) {
+        int result = comparator.compare(a, b);
+        return result != 0 ? result : Integer.compare(a, b);
+    }
+
+    /**
+     * Merges sorted new rows into a permutation.
+     * Each new row is placed by binary search, so a small batch costs
+     * O(k log n) comparisons plus one array copy.
+     */
+    private static int[] merge(int[] sorted, int[] newRows, RowComparator comparator) {
+        int[] merged = new int[sorted.length + newRows.length];
+        int from = 0;
+        int k = 0;
+        for (int row : newRows) {
+            int low = from;
+            int high = sorted.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(comparator, sorted[middle], row) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            System.arraycopy(sorted, from, merged, k, low - from);
+            k += low - from;
+            merged[k++] = row;
+            from = low;
+        }
+        System.arraycopy(sorted, from, merged, k, sorted.length - from);
+        return merged;
+    }
+
+    /**
+     * Stable merge sort of row numbers, avoiding boxed Integer comparisons.
+     */
+    private static void sort(int[] rows, RowComparator comparator) {
+        int[] buffer = Arrays.copyOf(rows, rows.length);
+        mergeSort(buffer, rows, 0, rows.length, comparator);
+    }
+
+    private static void mergeSort(int[] source, int[] target, int from, int to, RowComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        // Sort both halves of target into source, then merge them back into target
+        mergeSort(target, source, from, middle, comparator);
+        mergeSort(target, source, middle, to, comparator);
+        int i = from;
+        int j = middle;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < middle && compare(comparator, source[i], source[j]) <= 0)) {
+                target[k] = source[i++];
+            } else {
+                target[k] = source[j++];
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@
  * - Customer profile management
  * - Purchase history tracking
  * - Purchase limit enforcement
+ * - All-or-nothing purchase of a whole cart, validated in one pass
+ * - Sales history
  * - Shopping cart association
  */
 package Model;
@@ -15,7 +17,7 @@ import Exceptions.PurchaseLimitException;
 
 public class Customer {
     /** Maximum allowed purchases per customer */
-    private static final int MAX_PURCHASES = 3;
+    static final int MAX_PURCHASES = 3;
     
     /** Customer's unique identifier */
     private final String customerId;
@@ -28,6 +30,9 @@ public class Customer {
     
     /** Customer's shopping cart */
     private final ShoppingCart cart;
+    
+    /** Sales completed by the customer, in checkout order */
+    private final List<Sale> sales;
 
     /**
      * Constructs a new Customer with the specified details.
@@ -36,10 +41,23 @@ public class Customer {
      * @param name Customer's name
      */
     public Customer(String customerId, String name) {
+        this(customerId, name, ShoppingCart.MAX_ITEMS);
+    }
+
+    /**
+     * Constructs a new Customer whose cart holds up to the given number of items,
+     * e.g. for wholesale buyers.
+     * 
+     * @param customerId Unique identifier
+     * @param name Customer's name
+     * @param cartLimit Maximum number of items in the customer's cart
+     */
+    public Customer(String customerId, String name, int cartLimit) {
         this.customerId = customerId;
         this.name = name;
         this.purchasedItems = new ArrayList<>();
-        this.cart = new ShoppingCart(this);
+        this.sales = new ArrayList<>();
+        this.cart = new ShoppingCart(this, cartLimit);
     }
 
     /**
@@ -78,6 +96,24 @@ public class Customer {
         return Collections.unmodifiableList(purchasedItems);
     }
 
+    /**
+     * Gets an unmodifiable list of the customer's completed sales.
+     * 
+     * @return List of sales, oldest first
+     */
+    public List<Sale> getSales() {
+        return Collections.unmodifiableList(sales);
+    }
+
+    /**
+     * Gets the number of items the customer may still purchase.
+     * 
+     * @return Remaining purchases before the limit is reached
+     */
+    public int getRemainingPurchases() {
+        return Math.max(0, MAX_PURCHASES - purchasedItems.size());
+    }
+
     /**
      * Processes the purchase of an item.
      * 
@@ -92,6 +128,66 @@ public class Customer {
         purchasedItems.add(product);
     }
 
+    /**
+     * Purchases every unit of the given lines, or none of them.
+     * The purchase limit and the stock of every line are checked in one pass
+     * before anything changes; if a product then fails to be purchased, the
+     * units already purchased are returned and the history is left as it was.
+     * 
+     * @param lines Lines to purchase
+     * @param unitCount Total number of units over the lines
+     * @return The purchased units, one entry per unit
+     * @throws PurchaseLimitException if the purchase would exceed the limit or a line is out of stock
+     */
+    List<Product> purchaseAll(Collection<LineItem> lines, int unitCount) throws PurchaseLimitException {
+        if (unitCount > MAX_PURCHASES - purchasedItems.size()) {
+            throw new PurchaseLimitException(String.format(
+                "Purchase limit reached: %d items in cart, %d more allowed.", unitCount, getRemainingPurchases()));
+        }
+        for (LineItem line : lines) {
+            if (!line.getProduct().isInStock(line.getQuantity())) {
+                throw new PurchaseLimitException("Not enough stock for " + line.getQuantity() + " x " + line.getProduct().getName());
+            }
+        }
+
+        int start = purchasedItems.size();
+        try {
+            for (LineItem line : lines) {
+                Product product = line.getProduct();
+                for (int i = 0; i < line.getQuantity(); i++) {
+                    product.purchaseItem();
+                    purchasedItems.add(product);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Undo the units purchased before the failure, newest first
+            for (int i = purchasedItems.size() - 1; i >= start; i--) {
+                purchasedItems.remove(i).returnItem();
+            }
+            throw e;
+        }
+        return new ArrayList<>(purchasedItems.subList(start, purchasedItems.size()));
+    }
+
+    /**
+     * Restores a purchase made in an earlier session, e.g. from the CustomerStore.
+     * The product's stock is not touched again.
+     * 
+     * @param product Product previously purchased
+     */
+    void restorePurchase(Product product) {
+        purchasedItems.add(product);
+    }
+
+    /**
+     * Adds a completed sale to the customer's history.
+     * 
+     * @param sale Sale to record
+     */
+    void recordSale(Sale sale) {
+        sales.add(sale);
+    }
+
     /**
      * Returns an item previously purchased.
      * 
@@ -0,0 +1,460 @@
+/**
+ * Off-heap store of customer records for the whole loyalty base.
+ * Keeps millions of customers outside the Java heap in fixed-width records,
+ * so they cost the garbage collector nothing; a Customer object is only
+ * created when a session needs one.
+ *
+ * Key features:
+ * - Fixed-width records in direct ByteBuffer chunks, allocated as the store grows
+ * - Open-addressing (linear probing) id index, itself an off-heap int table
+ * - No per-customer heap objects: lookups compare the id bytes in place
+ * - Lazy Customer facades, built from a record on load and written back on save
+ * - Single fields (name, purchase count) readable without building a facade
+ * - Concurrent lookups; additions and saves take the write lock
+ *
+ * Record layout (RECORD_SIZE bytes):
+ * - customer id: length byte and up to 15 bytes of UTF-8
+ * - name: length byte and up to 47 bytes of UTF-8, longer names cut at a character boundary
+ * - cart item limit (int) and purchase count (int)
+ * - one SKU slot per allowed purchase: length byte and up to 15 bytes
+ *
+ * Index slots hold a record number plus one; 0 marks an empty slot. The
+ * memory is released when the store is garbage collected.
+ *
+ * Design Pattern: Flyweight Pattern
+ * - Customer objects are transient views over shared off-heap records
+ *
+ * @see Customer
+ * @see CartService
+ * @see CatalogRepository
+ */
+package Model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public final class CustomerStore {
+    /** Size of a customer record in bytes */
+    public static final int RECORD_SIZE = 128;
+
+    /** Longest customer id, in UTF-8 bytes */
+    public static final int MAX_ID_BYTES = 15;
+
+    /** Longest customer name, in UTF-8 bytes */
+    public static final int MAX_NAME_BYTES = 47;
+
+    /** Longest SKU of a purchase */
+    private static final int MAX_SKU_BYTES = 15;
+
+    /** Offset of the customer id field */
+    private static final int ID_OFFSET = 0;
+
+    /** Offset of the name field */
+    private static final int NAME_OFFSET = ID_OFFSET + 1 + MAX_ID_BYTES;
+
+    /** Offset of the cart item limit */
+    private static final int CART_LIMIT_OFFSET = NAME_OFFSET + 1 + MAX_NAME_BYTES;
+
+    /** Offset of the purchase count */
+    private static final int PURCHASE_COUNT_OFFSET = CART_LIMIT_OFFSET + Integer.BYTES;
+
+    /** Offset of the first purchase SKU slot */
+    private static final int PURCHASES_OFFSET = PURCHASE_COUNT_OFFSET + Integer.BYTES;
+
+    /** Records per chunk, as a power of two: 8 MB chunks */
+    private static final int CHUNK_SHIFT = 16;
+
+    /** Mask giving a record's position within its chunk */
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    /** Smallest index capacity, in slots */
+    private static final int MIN_INDEX_CAPACITY = 1 << 10;
+
+    /** Largest index capacity, in slots; an int table in a single buffer */
+    private static final int MAX_INDEX_CAPACITY = 1 << 28;
+
+    static {
+        if (PURCHASES_OFFSET + Customer.MAX_PURCHASES * (1 + MAX_SKU_BYTES) > RECORD_SIZE) {
+            throw new AssertionError("Customer record fields overflow RECORD_SIZE");
+        }
+    }
+
+    /**
+     * Lazily initialized holder for the shared store.
+     */
+    private static final class Holder {
+        private static final CustomerStore INSTANCE = new CustomerStore(CatalogRepository.getInstance(), 0);
+    }
+
+    /** Catalog resolving the SKUs of purchased products */
+    private final CatalogRepository catalog;
+
+    /** Guards the chunks and the index; lookups share it, changes hold it exclusively */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Record chunks, in record order */
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+
+    /** Id index: one int per slot, a record number plus one */
+    private ByteBuffer index;
+
+    /** Number of index slots, a power of two */
+    private int indexCapacity;
+
+    /** Number of records stored */
+    private int size;
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param catalog Catalog resolving the SKUs of purchased products
+     * @param expectedCustomers Number of customers to size the index for, to avoid rehashing
+     */
+    public CustomerStore(CatalogRepository catalog, int expectedCustomers) {
+        this.catalog = catalog;
+        int capacity = MIN_INDEX_CAPACITY;
+        // Kept at most half full, so probe sequences stay short
+        while (capacity < MAX_INDEX_CAPACITY && capacity / 2 < expectedCustomers) {
+            capacity <<= 1;
+        }
+        this.indexCapacity = capacity;
+        this.index = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+    }
+
+    /**
+     * Gets the store shared by every till, backed by the shared catalog.
+     *
+     * @return The shared customer store
+     */
+    public static CustomerStore getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Adds a customer with no purchases and the default cart limit.
+     * A name longer than MAX_NAME_BYTES is stored cut short.
+     *
+     * @param customerId Customer's unique identifier
+     * @param name Customer's name
+     * @return true if added, false if the id is already stored
+     * @throws IllegalArgumentException if the id is too long for a record
+     */
+    public boolean add(String customerId, String name) {
+        return add(customerId, name, ShoppingCart.MAX_ITEMS);
+    }
+
+    /**
+     * Adds a customer with no purchases.
+     * A name longer than MAX_NAME_BYTES is stored cut short.
+     *
+     * @param customerId Customer's unique identifier
+     * @param name Customer's name
+     * @param cartLimit Maximum number of items in the customer's cart
+     * @return true if added, false if the id is already stored
+     * @throws IllegalArgumentException if the id is too long for a record
+     */
+    public boolean add(String customerId, String name, int cartLimit) {
+        byte[] id = encode(customerId, MAX_ID_BYTES, "Customer id");
+        byte[] nameBytes = encodeTruncated(name, MAX_NAME_BYTES);
+        lock.writeLock().lock();
+        try {
+            if (findRecord(id) >= 0) {
+                return false;
+            }
+            insert(id, nameBytes, cartLimit);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether a customer id fits in a record. Customers with longer ids
+     * cannot be stored; unlike names, ids are not cut short, as they would collide.
+     *
+     * @param customerId Customer's unique identifier
+     * @return true if the id is at most MAX_ID_BYTES long
+     */
+    public static boolean canStore(String customerId) {
+        return customerId.getBytes(StandardCharsets.UTF_8).length <= MAX_ID_BYTES;
+    }
+
+    /**
+     * Checks whether a customer is stored.
+     *
+     * @param customerId Customer's unique identifier
+     * @return true if the customer has a record
+     */
+    public boolean contains(String customerId) {
+        byte[] id = customerId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            return findRecord(id) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a Customer for a stored record, e.g. when a session opens.
+     * Each call creates a new, independent Customer with the stored purchases;
+     * changes to it are kept only once it is saved.
+     *
+     * @param customerId Customer's unique identifier
+     * @return The customer, or null if not stored
+     */
+    public Customer load(String customerId) {
+        byte[] id = customerId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int record = findRecord(id);
+            if (record < 0) {
+                return null;
+            }
+            ByteBuffer chunk = chunkOf(record);
+            int base = offsetOf(record);
+            Customer customer = new Customer(customerId, readString(chunk, base + NAME_OFFSET),
+                    chunk.getInt(base + CART_LIMIT_OFFSET));
+            int purchases = chunk.getInt(base + PURCHASE_COUNT_OFFSET);
+            for (int i = 0; i < purchases; i++) {
+                Product product = catalog.findBySku(readString(chunk, base + PURCHASES_OFFSET + i * (1 + MAX_SKU_BYTES)));
+                if (product != null) {
+                    customer.restorePurchase(product);
+                }
+            }
+            return customer;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a customer's purchases back to its record, adding the record if needed.
+     * Purchases of products without a SKU, or with one too long for a slot, cannot be
+     * resolved again and are not stored. A name longer than MAX_NAME_BYTES is stored cut short.
+     *
+     * @param customer Customer to save
+     * @throws IllegalArgumentException if the id is too long for a record
+     */
+    public void save(Customer customer) {
+        byte[] id = encode(customer.getCustomerId(), MAX_ID_BYTES, "Customer id");
+        byte[] nameBytes = encodeTruncated(customer.getName(), MAX_NAME_BYTES);
+        lock.writeLock().lock();
+        try {
+            int record = findRecord(id);
+            if (record < 0) {
+                record = insert(id, nameBytes, customer.getCart().getMaxItems());
+            }
+            ByteBuffer chunk = chunkOf(record);
+            int base = offsetOf(record);
+            int count = 0;
+            for (Product product : customer.getPurchasedItems()) {
+                String sku = product.getSku();
+                byte[] skuBytes = sku == null ? null : sku.getBytes(StandardCharsets.UTF_8);
+                if (skuBytes != null && skuBytes.length <= MAX_SKU_BYTES && count < Customer.MAX_PURCHASES) {
+                    writeBytes(chunk, base + PURCHASES_OFFSET + count * (1 + MAX_SKU_BYTES), skuBytes);
+                    count++;
+                }
+            }
+            chunk.putInt(base + PURCHASE_COUNT_OFFSET, count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads a stored customer's name without building a Customer.
+     *
+     * @param customerId Customer's unique identifier
+     * @return The name, or null if not stored
+     */
+    public String getName(String customerId) {
+        byte[] id = customerId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int record = findRecord(id);
+            return record < 0 ? null : readString(chunkOf(record), offsetOf(record) + NAME_OFFSET);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads a stored customer's number of purchases without building a Customer.
+     *
+     * @param customerId Customer's unique identifier
+     * @return Purchase count, or -1 if not stored
+     */
+    public int getPurchaseCount(String customerId) {
+        byte[] id = customerId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int record = findRecord(id);
+            return record < 0 ? -1 : chunkOf(record).getInt(offsetOf(record) + PURCHASE_COUNT_OFFSET);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of stored customers.
+     *
+     * @return Customer count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the off-heap memory held by the records and the index.
+     *
+     * @return Allocated bytes outside the Java heap
+     */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) chunks.length * (RECORD_SIZE << CHUNK_SHIFT) + (long) indexCapacity * Integer.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a record and indexes it. Requires the write lock.
+     */
+    private int insert(byte[] id, byte[] name, int cartLimit) {
+        if ((size + 1) * 2L > indexCapacity) {
+            growIndex();
+        }
+        int record = size;
+        if ((record >>> CHUNK_SHIFT) == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = ByteBuffer.allocateDirect(RECORD_SIZE << CHUNK_SHIFT);
+        }
+        ByteBuffer chunk = chunkOf(record);
+        int base = offsetOf(record);
+        writeBytes(chunk, base + ID_OFFSET, id);
+        writeBytes(chunk, base + NAME_OFFSET, name);
+        chunk.putInt(base + CART_LIMIT_OFFSET, cartLimit);
+        chunk.putInt(base + PURCHASE_COUNT_OFFSET, 0);
+        placeInIndex(index, indexCapacity, hash(id), record);
+        size++;
+        return record;
+    }
+
+    /**
+     * Finds a record by id with linear probing.
+     *
+     * @return Record number, or -1 if the id is not stored
+     */
+    private int findRecord(byte[] id) {
+        int mask = indexCapacity - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index.getInt(slot * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            int record = entry - 1;
+            if (idEquals(chunkOf(record), offsetOf(record) + ID_OFFSET, id)) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * Doubles the index and reinserts every record. Requires the write lock.
+     */
+    private void growIndex() {
+        if (indexCapacity == MAX_INDEX_CAPACITY) {
+            throw new IllegalStateException("Customer store is full: " + size + " customers");
+        }
+        int capacity = indexCapacity << 1;
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        for (int record = 0; record < size; record++) {
+            ByteBuffer chunk = chunkOf(record);
+            int base = offsetOf(record) + ID_OFFSET;
+            byte[] id = new byte[chunk.get(base)];
+            chunk.get(base + 1, id);
+            placeInIndex(grown, capacity, hash(id), record);
+        }
+        index = grown;
+        indexCapacity = capacity;
+    }
+
+    private static void placeInIndex(ByteBuffer table, int capacity, int hash, int record) {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+        while (table.getInt(slot * Integer.BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.putInt(slot * Integer.BYTES, record + 1);
+    }
+
+    private ByteBuffer chunkOf(int record) {
+        return chunks[record >>> CHUNK_SHIFT];
+    }
+
+    private static int offsetOf(int record) {
+        return (record & CHUNK_MASK) * RECORD_SIZE;
+    }
+
+    private static int hash(byte[] id) {
+        int hash = Arrays.hashCode(id);
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean idEquals(ByteBuffer chunk, int offset, byte[] id) {
+        if (chunk.get(offset) != id.length) {
+            return false;
+        }
+        for (int i = 0; i < id.length; i++) {
+            if (chunk.get(offset + 1 + i) != id[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(String value, int maxBytes, String field) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException(field + " longer than " + maxBytes + " bytes: " + value);
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes a value, cutting it to the longest whole-character prefix that fits.
+     */
+    private static byte[] encodeTruncated(String value, int maxBytes) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        int length = maxBytes;
+        // Back up over continuation bytes (10xxxxxx) to the start of the cut character
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    private static void writeBytes(ByteBuffer chunk, int offset, byte[] bytes) {
+        chunk.put(offset, (byte) bytes.length);
+        chunk.put(offset + 1, bytes);
+    }
+
+    private static String readString(ByteBuffer chunk, int offset) {
+        byte[] bytes = new byte[chunk.get(offset)];
+        chunk.get(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
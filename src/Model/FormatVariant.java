@@ -0,0 +1,167 @@
+/**
+ * An album offered in a specific format, such as vinyl or CD.
+ * Lightweight view over a single album record; it holds no copy of the album's data.
+ * 
+ * Key features:
+ * - One variant per album and format, shared by every view of the catalog
+ * - Price supplied by the catalog's pricing policy
+ * - Format-specific SKU derived from the album's SKU
+ * - Can be added to shopping carts like any other product
+ * 
+ * Design Pattern: Flyweight Pattern
+ * - Title, artist, genre and image are read from the shared album
+ * 
+ * @see Album
+ * @see Format
+ * @see PricingPolicy
+ */
+package Model;
+
+import Enums.Format;
+import Enums.Genre;
+import Interfaces.Recording;
+
+public final class FormatVariant extends Product implements Recording {
+    /** The album record this variant sells */
+    private final Album album;
+
+    /** The format this variant is sold in */
+    private final Format format;
+
+    /** The catalog whose pricing policy prices this variant */
+    private final CatalogRepository catalog;
+
+    /**
+     * Constructs a variant of an album.
+     * Variants are created and cached by the catalog.
+     * 
+     * @param album The album record
+     * @param format The format being sold
+     * @param catalog The catalog that prices the variant
+     */
+    FormatVariant(Album album, Format format, CatalogRepository catalog) {
+        super(album.getTitle(), 0, album.getImageFileName());
+        this.album = album;
+        this.format = format;
+        this.catalog = catalog;
+        if (album.getSku() != null) {
+            setSku(album.getSku() + "-" + format.getSkuSuffix());
+        }
+    }
+
+    /**
+     * Gets the album record this variant sells.
+     * 
+     * @return The album
+     */
+    public Album getAlbum() {
+        return album;
+    }
+
+    /**
+     * Gets the format this variant is sold in.
+     * 
+     * @return The format
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the price of this variant according to the catalog's pricing policy.
+     * 
+     * @return Price in cents
+     */
+    @Override
+    public long getPriceCents() {
+        return catalog.getPricingPolicy().priceOf(album, format);
+    }
+
+    /**
+     * Gets the title of the album.
+     * 
+     * @return The album title
+     */
+    @Override
+    public String getTitle() {
+        return album.getTitle();
+    }
+
+    /**
+     * Gets the artist of the album.
+     * 
+     * @return The artist/band name
+     */
+    @Override
+    public String getArtist() {
+        return album.getArtist();
+    }
+
+    /**
+     * Gets the musical genre of the album.
+     * 
+     * @return The album's genre
+     */
+    @Override
+    public Genre getGenre() {
+        return album.getGenre();
+    }
+
+    /**
+     * Gets the registry id of the album's title.
+     * 
+     * @return The title id
+     */
+    @Override
+    public int getTitleId() {
+        return album.getTitleId();
+    }
+
+    /**
+     * Gets the registry id of the album's artist.
+     * 
+     * @return The artist id
+     */
+    @Override
+    public int getArtistId() {
+        return album.getArtistId();
+    }
+
+    /**
+     * Creates a string representation of the variant.
+     * Format: "Title - Artist [Format] ($Price)"
+     * 
+     * @return Formatted string with variant details
+     */
+    @Override
+    public String toString() {
+        return getTitle() + " - " + getArtist() + " [" + format + "] (" + Money.format(getPriceCents()) + ")";
+    }
+
+    /**
+     * Checks the album's stock, which every format of the album shares.
+     * 
+     * @param quantity Number of units to be purchased
+     * @return true if the units can be purchased
+     */
+    @Override
+    public boolean isInStock(int quantity) {
+        return album.isInStock(quantity);
+    }
+
+    /**
+     * Processes the purchase of this variant.
+     */
+    @Override
+    public void purchaseItem() {
+        album.purchaseItem();
+    }
+
+    /**
+     * Processes the return of this variant.
+     */
+    @Override
+    public void returnItem() {
+        album.returnItem();
+    }
+}
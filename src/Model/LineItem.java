@@ -0,0 +1,89 @@
+/**
+ * One line of a shopping cart: a product and how many units of it are wanted.
+ *
+ * Key features:
+ * - Unit price captured when the product is first added, so the cart's
+ *   running total stays consistent if catalog prices change later
+ * - Line total computed in exact integer cents
+ *
+ * @see ShoppingCart
+ * @see Money
+ */
+package Model;
+
+public final class LineItem {
+    /** Product on this line */
+    private final Product product;
+
+    /** Price of one unit in cents, at the time the product was added */
+    private final long unitPriceCents;
+
+    /** Number of units, always positive while the line is in a cart */
+    private int quantity;
+
+    /**
+     * Constructs an empty line for a product at its current price.
+     *
+     * @param product Product on this line
+     */
+    LineItem(Product product) {
+        this.product = product;
+        this.unitPriceCents = product.getPriceCents();
+    }
+
+    /**
+     * Gets the product on this line.
+     *
+     * @return Product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Gets the price of one unit.
+     *
+     * @return Unit price in cents
+     */
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+
+    /**
+     * Gets the number of units on this line.
+     *
+     * @return Quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Sets the number of units on this line. Only the owning cart changes it,
+     * keeping its totals in step.
+     *
+     * @param quantity New quantity
+     */
+    void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * Gets the price of every unit on this line.
+     *
+     * @return Line total in cents
+     */
+    public long getLineTotalCents() {
+        return Money.multiply(unitPriceCents, quantity);
+    }
+
+    /**
+     * Returns a string representation of the line.
+     *
+     * @return Formatted string with quantity, product name and line total
+     */
+    @Override
+    public String toString() {
+        return String.format("%d x %s: %s", quantity, product.getName(), Money.format(getLineTotalCents()));
+    }
+}
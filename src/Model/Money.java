@@ -0,0 +1,153 @@
+/**
+ * Fixed-point money arithmetic on amounts held as a long number of cents.
+ * Every price and total in the shop is expressed in cents.
+ *
+ * Key features:
+ * - Exact integer addition and multiplication, with overflow detection
+ * - Allocation-free arithmetic on primitive longs
+ * - Exact parsing of decimal prices without going through double
+ * - Display formatting such as "$29.99"
+ *
+ * Design Pattern: Utility Class
+ * - Stateless static helpers, cannot be instantiated
+ *
+ * @see Product
+ * @see ShoppingCart
+ * @see Sale
+ */
+package Model;
+
+public final class Money {
+    /** Number of cents in one dollar */
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    /** The zero amount */
+    public static final long ZERO = 0;
+
+    private Money() {
+        // Utility class
+    }
+
+    /**
+     * Adds two amounts.
+     *
+     * @param a First amount in cents
+     * @param b Second amount in cents
+     * @return Sum in cents
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Subtracts one amount from another.
+     *
+     * @param a Amount in cents
+     * @param b Amount in cents to subtract
+     * @return Difference in cents
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Multiplies an amount by a quantity.
+     *
+     * @param cents Unit amount in cents
+     * @param quantity Number of units
+     * @return Total in cents
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long multiply(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * Converts a whole-dollar and cent amount to cents.
+     *
+     * @param dollars Whole dollars
+     * @param cents Additional cents (0-99)
+     * @return Amount in cents
+     */
+    public static long of(long dollars, int cents) {
+        return Math.addExact(Math.multiplyExact(dollars, CENTS_PER_DOLLAR), cents);
+    }
+
+    /**
+     * Parses a decimal amount such as "29.99", "35.5", "15" or "$4.00".
+     * The text is parsed exactly; at most two decimal places are allowed.
+     *
+     * @param text Amount to parse
+     * @return Amount in cents
+     * @throws NumberFormatException if the text is not a valid amount
+     */
+    public static long parse(String text) {
+        String value = text.trim();
+        int i = 0;
+        boolean negative = false;
+        if (i < value.length() && value.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i < value.length() && value.charAt(i) == '$') {
+            i++;
+        }
+
+        long cents = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimals >= 0 && ++decimals > 2) {
+                    throw new NumberFormatException("Too many decimal places in amount: \"" + text + "\"");
+                }
+                cents = Math.addExact(Math.multiplyExact(cents, 10), c - '0');
+                digits++;
+            } else {
+                throw new NumberFormatException("Invalid amount: \"" + text + "\"");
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid amount: \"" + text + "\"");
+        }
+        for (int scale = Math.max(decimals, 0); scale < 2; scale++) {
+            cents = Math.multiplyExact(cents, 10);
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Formats an amount for display, e.g. "$29.99" or "-$4.50".
+     *
+     * @param cents Amount in cents
+     * @return Formatted amount
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(12), cents).toString();
+    }
+
+    /**
+     * Appends an amount formatted for display to a builder.
+     *
+     * @param builder Builder to append to
+     * @param cents Amount in cents
+     * @return The same builder
+     */
+    public static StringBuilder appendTo(StringBuilder builder, long cents) {
+        if (cents < 0) {
+            builder.append('-');
+        }
+        long absolute = Math.abs(cents);
+        long remainder = absolute % CENTS_PER_DOLLAR;
+        builder.append('$').append(absolute / CENTS_PER_DOLLAR).append('.');
+        if (remainder < 10) {
+            builder.append('0');
+        }
+        return builder.append(remainder);
+    }
+}
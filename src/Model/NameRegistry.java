@@ -0,0 +1,112 @@
+/**
+ * Registry of the titles and artist names used across the catalog.
+ * Each distinct name is stored once and identified by a stable int id.
+ *
+ * Key features:
+ * - Interning of repeated catalog strings ("OK Computer", "Radiohead", ...)
+ * - Stable ids, assigned in order of first registration
+ * - O(1) id to name resolution through an array
+ * - Safe for concurrent registration and lookup
+ *
+ * Design Pattern: Flyweight Pattern
+ * - Albums and CDs share name instances instead of holding their own copies
+ * - Name equality becomes an int comparison
+ *
+ * @see Album
+ * @see CD
+ * @see Recording
+ */
+package Model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class NameRegistry {
+    /** Id returned for names that have not been registered */
+    public static final int UNKNOWN = -1;
+
+    /** Initial capacity of the name table */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** Ids by name */
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /** Names by id; replaced by a larger copy when full */
+    private volatile String[] names = new String[INITIAL_CAPACITY];
+
+    /** Number of registered names */
+    private int size;
+
+    /**
+     * Lazily initialized holder for the shared registry.
+     */
+    private static final class Holder {
+        private static final NameRegistry INSTANCE = new NameRegistry();
+    }
+
+    /**
+     * Gets the registry shared by the whole application.
+     *
+     * @return The shared name registry
+     */
+    public static NameRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Registers a name, or finds it if it is already registered.
+     *
+     * @param name Name to register
+     * @return Stable id of the name
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id == null) {
+                String[] table = names;
+                if (size == table.length) {
+                    table = Arrays.copyOf(table, size * 2);
+                }
+                id = size;
+                table[size++] = name;
+                // Publish the table before the id so readers of the id always see the name
+                names = table;
+                ids.put(name, id);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Finds the id of a name without registering it.
+     *
+     * @param name Name to look up
+     * @return Id of the name, or UNKNOWN if it is not registered
+     */
+    public int find(String name) {
+        return ids.getOrDefault(name, UNKNOWN);
+    }
+
+    /**
+     * Resolves an id to its name.
+     *
+     * @param id Id returned by {@link #intern(String)}
+     * @return The registered name
+     */
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Gets the number of registered names.
+     *
+     * @return Registry size
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Pricing engine for album format variants.
+ * Evaluates the PricingRules once per album and format and serves prices
+ * from precomputed tables, so carts and list views never evaluate rules.
+ *
+ * Key features:
+ * - One price table per format, indexed by catalog row
+ * - O(1) price lookups through an album's catalog row
+ * - Whole-catalog repricing in one parallel batch when the rules change
+ * - New tables are published in a single swap; readers never see a half-priced catalog
+ * - Rows appended to the catalog are priced as they are added
+ * - Branch-free price range scans of a format's table
+ *
+ * Design Pattern: Strategy Pattern
+ * - Default PricingPolicy of the catalog
+ *
+ * @see PricingRules
+ * @see PricingPolicy
+ * @see CatalogColumns
+ * @see FormatVariant
+ */
+package Model;
+
+import Enums.Format;
+import Enums.Genre;
+import Interfaces.PricingPolicy;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public final class PricingEngine implements PricingPolicy {
+    /** Cached format constants, indexed by ordinal */
+    private static final Format[] FORMATS = Format.values();
+
+    /** Initial capacity of the price tables */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Album list prices and genres, row = catalog row */
+    private final CatalogColumns columns;
+
+    /** Rules the current tables were computed from */
+    private volatile PricingRules rules;
+
+    /** Prices in cents, indexed by format ordinal and catalog row */
+    private volatile long[][] tables;
+
+    /** Number of rows priced in the tables; written after the tables */
+    private volatile int pricedRows;
+
+    /** Incremented whenever the whole catalog is repriced; appended rows leave it unchanged */
+    private volatile int revision;
+
+    /**
+     * Constructs an engine using the shop's standard rules.
+     *
+     * @param columns Column store holding the albums' list prices and genres
+     */
+    public PricingEngine(CatalogColumns columns) {
+        this(columns, PricingRules.standard());
+    }
+
+    /**
+     * Constructs an engine and prices every row of the column store.
+     *
+     * @param columns Column store holding the albums' list prices and genres
+     * @param rules Pricing rules to apply
+     */
+    public PricingEngine(CatalogColumns columns, PricingRules rules) {
+        this.columns = columns;
+        this.rules = rules.copy();
+        this.tables = new long[FORMATS.length][INITIAL_CAPACITY];
+        reprice();
+    }
+
+    /**
+     * Gets the price of an album in a given format.
+     * Albums priced by this engine are served from the tables; any other
+     * album is priced by evaluating the rules.
+     *
+     * @param album Album whose list price the rules are based on
+     * @param format Format being sold
+     * @return Price in cents
+     */
+    @Override
+    public long priceOf(Album album, Format format) {
+        int row = album.getCatalogRow();
+        int priced = pricedRows;
+        long[][] current = tables;
+        if (row >= 0 && row < priced) {
+            return current[format.ordinal()][row];
+        }
+        return rules.price(album.getPriceCents(), album.getGenre(), format);
+    }
+
+    /**
+     * Gets the price of a catalog row in a given format.
+     *
+     * @param row Catalog row
+     * @param format Format being sold
+     * @return Price in cents
+     * @throws IndexOutOfBoundsException if the row has not been priced
+     */
+    public long priceOf(int row, Format format) {
+        int priced = pricedRows;
+        if (row < 0 || row >= priced) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range 0-" + (priced - 1));
+        }
+        return tables[format.ordinal()][row];
+    }
+
+    /**
+     * Gets a copy of the rules currently in effect.
+     *
+     * @return Current pricing rules
+     */
+    public PricingRules getRules() {
+        return rules.copy();
+    }
+
+    /**
+     * Replaces the pricing rules and reprices the whole catalog.
+     * Later changes to the given rules object have no effect until it is set again.
+     *
+     * @param rules New pricing rules
+     */
+    public synchronized void setRules(PricingRules rules) {
+        this.rules = rules.copy();
+        reprice();
+    }
+
+    /**
+     * Reprices every catalog row in one parallel batch.
+     * Lookups keep using the previous tables until the new ones are complete.
+     */
+    public synchronized void reprice() {
+        PricingRules current = rules;
+        int size = columns.size();
+        long[][] repriced = new long[FORMATS.length][Math.max(size, INITIAL_CAPACITY)];
+        IntStream.range(0, size).parallel().forEach(row -> {
+            long listPrice = columns.getPriceCents(row);
+            Genre genre = columns.getGenre(row);
+            for (Format format : FORMATS) {
+                repriced[format.ordinal()][row] = current.price(listPrice, genre, format);
+            }
+        });
+        tables = repriced;
+        pricedRows = size;
+        revision++;
+    }
+
+    /**
+     * Prices rows appended to the column store since the last update.
+     * Called by the catalog after registering an album.
+     */
+    synchronized void rowsAdded() {
+        PricingRules current = rules;
+        int size = columns.size();
+        long[][] grown = tables;
+        if (size > grown[0].length) {
+            int capacity = Math.max(size, grown[0].length * 2);
+            grown = new long[FORMATS.length][];
+            for (int f = 0; f < FORMATS.length; f++) {
+                grown[f] = Arrays.copyOf(tables[f], capacity);
+            }
+        }
+        for (int row = pricedRows; row < size; row++) {
+            long listPrice = columns.getPriceCents(row);
+            Genre genre = columns.getGenre(row);
+            for (Format format : FORMATS) {
+                grown[format.ordinal()][row] = current.price(listPrice, genre, format);
+            }
+        }
+        // Publish the tables before the row count so readers of the count see the prices
+        tables = grown;
+        pricedRows = size;
+    }
+
+    /**
+     * Finds the rows whose price in a format is within a range.
+     * For example, "CDs under $10" is filter(Format.CD, 0, 1000).
+     *
+     * @param format Format whose prices are compared
+     * @param minPriceCents Lowest matching price in cents, inclusive
+     * @param maxPriceCents Highest matching price in cents, exclusive
+     * @return Bitmap of the matching rows, sized to the priced rows
+     */
+    public RowBitmap filter(Format format, long minPriceCents, long maxPriceCents) {
+        int size = pricedRows;
+        long[] table = tables[format.ordinal()];
+        RowBitmap result = new RowBitmap(size);
+        long[] words = result.words();
+
+        // Same sign-bit comparisons as CatalogColumns.filter, so the loop has no branches
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(base + Long.SIZE, size);
+            long word = 0;
+            for (int row = base; row < end; row++) {
+                long price = table[row];
+                long aboveMin = (minPriceCents - price - 1) >>> 63;
+                long belowMax = (price - maxPriceCents) >>> 63;
+                word |= (aboveMin & belowMax) << (row - base);
+            }
+            words[w] = word;
+        }
+        return result;
+    }
+
+    /**
+     * Gets a number that changes whenever the whole catalog is repriced, so callers can
+     * tell whether figures derived from the tables are still current. Rows appended
+     * since then are priced without changing it; callers catch up on them through
+     * {@link #getPricedRows()}.
+     *
+     * @return Current revision of the tables
+     */
+    int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the number of catalog rows priced by the engine.
+     *
+     * @return Priced row count
+     */
+    public int getPricedRows() {
+        return pricedRows;
+    }
+}
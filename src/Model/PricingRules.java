@@ -0,0 +1,170 @@
+/**
+ * Configurable pricing rules applied by the PricingEngine.
+ * Describes how a format price is derived from an album's list price.
+ *
+ * Key features:
+ * - Per-format percentage of the list price and rounding step
+ * - Per-genre markdowns (e.g. 10% off every JAZZ album)
+ * - Store-wide markdown applied on top of every other rule
+ * - Copyable, so the engine can price from a stable snapshot
+ *
+ * Price of an album in a format:
+ * list price x format percentage, less the genre markdown, less the
+ * store-wide markdown, rounded half up to the format's rounding step.
+ * Intermediate amounts are kept exact; only the final price is rounded.
+ *
+ * @see PricingEngine
+ * @see Format
+ * @see Genre
+ */
+package Model;
+
+import Enums.Format;
+import Enums.Genre;
+
+import java.util.Arrays;
+
+public final class PricingRules {
+    /** Scale of a combined price factor: three percentages multiplied together */
+    private static final long FACTOR_SCALE = 100L * 100L * 100L;
+
+    /** Format prices as a percentage of the list price, indexed by format ordinal */
+    private final int[] formatPercents;
+
+    /** Rounding step of each format in cents, indexed by format ordinal */
+    private final long[] roundingSteps;
+
+    /** Markdown percentage of each genre, indexed by genre ordinal */
+    private final int[] genreMarkdowns;
+
+    /** Markdown percentage applied to every album */
+    private int markdown;
+
+    /**
+     * Constructs rules that sell every format at the full list price.
+     */
+    public PricingRules() {
+        formatPercents = new int[Format.values().length];
+        roundingSteps = new long[Format.values().length];
+        genreMarkdowns = new int[Genre.values().length];
+        Arrays.fill(formatPercents, 100);
+        Arrays.fill(roundingSteps, 1);
+    }
+
+    private PricingRules(PricingRules other) {
+        formatPercents = other.formatPercents.clone();
+        roundingSteps = other.roundingSteps.clone();
+        genreMarkdowns = other.genreMarkdowns.clone();
+        markdown = other.markdown;
+    }
+
+    /**
+     * Creates the shop's standard rules: vinyl at the list price, CD at 40%,
+     * cassette at 30% and digital at 25%, each rounded to the nearest 50 cents.
+     *
+     * @return New standard rules
+     */
+    public static PricingRules standard() {
+        return new PricingRules()
+                .setFormatRule(Format.CD, 40, 50)
+                .setFormatRule(Format.CASSETTE, 30, 50)
+                .setFormatRule(Format.DIGITAL, 25, 50);
+    }
+
+    /**
+     * Sets how a format is priced.
+     *
+     * @param format Format to configure
+     * @param percentOfList Price as a percentage of the list price
+     * @param roundingStep Rounding step in cents (1 for no rounding)
+     * @return These rules, for chaining
+     * @throws IllegalArgumentException if the percentage is negative or the step is not positive
+     */
+    public PricingRules setFormatRule(Format format, int percentOfList, long roundingStep) {
+        if (percentOfList < 0 || roundingStep <= 0) {
+            throw new IllegalArgumentException("Invalid rule for " + format + ": "
+                    + percentOfList + "%, step " + roundingStep);
+        }
+        formatPercents[format.ordinal()] = percentOfList;
+        roundingSteps[format.ordinal()] = roundingStep;
+        return this;
+    }
+
+    /**
+     * Sets the markdown of a genre.
+     *
+     * @param genre Genre to mark down
+     * @param percent Markdown percentage (0 for none)
+     * @return These rules, for chaining
+     * @throws IllegalArgumentException if the percentage is not between 0 and 100
+     */
+    public PricingRules setGenreMarkdown(Genre genre, int percent) {
+        genreMarkdowns[genre.ordinal()] = checkMarkdown(percent);
+        return this;
+    }
+
+    /**
+     * Sets the store-wide markdown.
+     *
+     * @param percent Markdown percentage (0 for none)
+     * @return These rules, for chaining
+     * @throws IllegalArgumentException if the percentage is not between 0 and 100
+     */
+    public PricingRules setMarkdown(int percent) {
+        markdown = checkMarkdown(percent);
+        return this;
+    }
+
+    /**
+     * Gets the markdown of a genre.
+     *
+     * @param genre Genre to look up
+     * @return Markdown percentage
+     */
+    public int getGenreMarkdown(Genre genre) {
+        return genreMarkdowns[genre.ordinal()];
+    }
+
+    /**
+     * Gets the store-wide markdown.
+     *
+     * @return Markdown percentage
+     */
+    public int getMarkdown() {
+        return markdown;
+    }
+
+    /**
+     * Creates an independent copy of these rules.
+     *
+     * @return Copy of the rules
+     */
+    public PricingRules copy() {
+        return new PricingRules(this);
+    }
+
+    /**
+     * Evaluates the rules for one album and format.
+     *
+     * @param listPriceCents Album list price in cents
+     * @param genre Album genre
+     * @param format Format being sold
+     * @return Price in cents
+     */
+    long price(long listPriceCents, Genre genre, Format format) {
+        int f = format.ordinal();
+        // The three percentages combine into one factor, so the price is rounded only once
+        long factor = (long) formatPercents[f] * (100 - genreMarkdowns[genre.ordinal()]) * (100 - markdown);
+        long step = roundingSteps[f];
+        long scaledStep = Math.multiplyExact(step, FACTOR_SCALE);
+        long scaled = Math.addExact(Math.multiplyExact(listPriceCents, factor), scaledStep / 2);
+        return Math.multiplyExact(Math.floorDiv(scaled, scaledStep), step);
+    }
+
+    private static int checkMarkdown(int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Markdown must be between 0 and 100: " + percent);
+        }
+        return percent;
+    }
+}
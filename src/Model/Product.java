@@ -30,18 +30,24 @@ import Interfaces.Purchasable;
  */
 public abstract class Product implements Purchasable {
     /**
-     * The name of the product.
+     * The id of the product's name in the shared NameRegistry.
      * 
-     * This attribute is used to identify the product and is displayed to the user.
+     * The name is used to identify the product and is displayed to the user.
+     * Products with the same name share a single registered String.
+     * 
+     * @see NameRegistry
      */
-    protected String name;
+    protected final int nameId;
     
     /**
-     * The price of the product.
+     * The price of the product in cents.
      * 
      * This attribute represents the cost of the product and is used in transactions.
+     * Held as fixed-point cents so that totals are exact.
+     * 
+     * @see Money
      */
-    protected double price;
+    protected long priceCents;
     
     /**
      * The file name of the product's image.
@@ -50,16 +56,23 @@ public abstract class Product implements Purchasable {
      */
     protected String imageFileName;
 
+    /**
+     * The stock keeping unit of the product.
+     * 
+     * Assigned by the CatalogRepository when the product is registered in the catalog.
+     */
+    private String sku;
+
     /**
      * Constructs a new Product instance with the given attributes.
      * 
      * @param name The name of the product.
-     * @param price The price of the product.
+     * @param priceCents The price of the product in cents.
      * @param imageFileName The file name of the product's image.
      */
-    public Product(String name, double price, String imageFileName) {
-        this.name = name;
-        this.price = price;
+    public Product(String name, long priceCents, String imageFileName) {
+        this.nameId = NameRegistry.getInstance().intern(name);
+        this.priceCents = priceCents;
         this.imageFileName = imageFileName;
     }
 
@@ -69,16 +82,28 @@ public abstract class Product implements Purchasable {
      * @return The name of the product.
      */
     public final String getName() {
-        return name;
+        return NameRegistry.getInstance().name(nameId);
+    }
+
+    /**
+     * Returns the registry id of the product's name.
+     * Two products have the same name exactly when their name ids are equal.
+     * 
+     * @return The id of the name in the shared NameRegistry.
+     */
+    public final int getNameId() {
+        return nameId;
     }
 
     /**
      * Returns the price of the product.
+     * Products whose price is derived from pricing rules override this method.
      * 
-     * @return The price of the product.
+     * @return The price of the product in cents.
+     * @see Money
      */
-    public final double getPrice() {
-        return price;
+    public long getPriceCents() {
+        return priceCents;
     }
 
     /**
@@ -90,6 +115,37 @@ public abstract class Product implements Purchasable {
         return imageFileName;
     }
 
+    /**
+     * Returns the stock keeping unit of the product.
+     * 
+     * @return The SKU, or null if the product is not registered in a catalog.
+     */
+    public final String getSku() {
+        return sku;
+    }
+
+    /**
+     * Assigns the stock keeping unit of the product.
+     * Only the catalog is allowed to assign SKUs.
+     * 
+     * @param sku The SKU to assign.
+     */
+    final void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    /**
+     * Checks whether enough units of the product are in stock for a purchase.
+     * Checkout validates every line with this before any unit is purchased.
+     * Products whose stock is not tracked are always in stock.
+     * 
+     * @param quantity Number of units to be purchased
+     * @return true if the units can be purchased
+     */
+    public boolean isInStock(int quantity) {
+        return true;
+    }
+
     /**
      * Abstract method to purchase the product.
      * Must be implemented by child classes.
@@ -117,6 +173,6 @@ public abstract class Product implements Purchasable {
      */
     @Override
     public String toString() {
-        return name + " ($" + price + ")";
+        return getName() + " (" + Money.format(getPriceCents()) + ")";
     }
 }
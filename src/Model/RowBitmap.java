@@ -0,0 +1,219 @@
+/**
+ * Fixed-size set of catalog row numbers stored as a bitmap.
+ * Produced by column scans and combined to answer catalog filters.
+ *
+ * Key features:
+ * - One bit per catalog row, 64 rows per word
+ * - Word-at-a-time AND/OR combination of filter results
+ * - Ordered iteration over matching rows
+ *
+ * @see CatalogColumns
+ */
+package Model;
+
+import java.util.Arrays;
+
+public final class RowBitmap {
+    /** Bits of the set, row r is bit (r % 64) of word (r / 64) */
+    private final long[] words;
+
+    /** Number of rows covered by the bitmap */
+    private final int size;
+
+    /**
+     * Constructs an empty bitmap covering the given number of rows.
+     *
+     * @param size Number of rows covered
+     */
+    public RowBitmap(int size) {
+        this(size, new long[wordCount(size)]);
+    }
+
+    /**
+     * Constructs a bitmap over existing words.
+     *
+     * @param size Number of rows covered
+     * @param words Bit words, owned by the new bitmap
+     */
+    RowBitmap(int size, long[] words) {
+        this.size = size;
+        this.words = words;
+    }
+
+    /**
+     * Creates a bitmap with every row set.
+     *
+     * @param size Number of rows covered
+     * @return Full bitmap
+     */
+    public static RowBitmap all(int size) {
+        long[] words = new long[wordCount(size)];
+        Arrays.fill(words, -1L);
+        if (size % Long.SIZE != 0) {
+            words[words.length - 1] = (1L << size) - 1;
+        }
+        return new RowBitmap(size, words);
+    }
+
+    /**
+     * Creates a bitmap with the given rows set.
+     *
+     * @param size Number of rows covered
+     * @param rows Rows to set, each between 0 and size - 1
+     * @return Bitmap of the rows
+     */
+    public static RowBitmap of(int size, int[] rows) {
+        RowBitmap bitmap = new RowBitmap(size);
+        for (int row : rows) {
+            bitmap.set(row);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Creates an independent copy of this bitmap covering a given number of rows.
+     * Rows beyond the current size are clear; rows beyond the new size are dropped.
+     *
+     * @param size Number of rows covered by the copy
+     * @return Copy of the bitmap
+     */
+    public RowBitmap copy(int size) {
+        long[] copied = Arrays.copyOf(words, wordCount(size));
+        if (size < this.size && size % Long.SIZE != 0) {
+            copied[copied.length - 1] &= (1L << size) - 1;
+        }
+        return new RowBitmap(size, copied);
+    }
+
+    /**
+     * Gets the number of words needed to cover the given number of rows.
+     *
+     * @param size Number of rows
+     * @return Number of 64-bit words
+     */
+    static int wordCount(int size) {
+        return (size + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Gets the number of rows covered by the bitmap.
+     *
+     * @return Row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a row to the set.
+     *
+     * @param row Row number
+     */
+    public void set(int row) {
+        words[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Removes a row from the set.
+     *
+     * @param row Row number
+     */
+    public void clear(int row) {
+        words[row >>> 6] &= ~(1L << row);
+    }
+
+    /**
+     * Checks whether a row is in the set.
+     *
+     * @param row Row number
+     * @return true if the row is set
+     */
+    public boolean get(int row) {
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Counts the rows in the set.
+     *
+     * @return Number of set rows
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Keeps only the rows that are also set in another bitmap.
+     *
+     * @param other Bitmap of the same size
+     * @return This bitmap
+     */
+    public RowBitmap and(RowBitmap other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Adds every row set in another bitmap.
+     *
+     * @param other Bitmap of the same size
+     * @return This bitmap
+     */
+    public RowBitmap or(RowBitmap other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Finds the next row in the set, starting at the given row.
+     *
+     * @param from First row to consider
+     * @return The next set row, or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * Lists the rows in the set in ascending order.
+     *
+     * @return Array of set rows
+     */
+    public int[] toArray() {
+        int[] rows = new int[cardinality()];
+        int count = 0;
+        for (int row = nextSetBit(0); row >= 0; row = nextSetBit(row + 1)) {
+            rows[count++] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the underlying words; used by column scans in this package.
+     *
+     * @return Bit words
+     */
+    long[] words() {
+        return words;
+    }
+}
@@ -33,8 +33,8 @@ public class Sale {
     /** List of products purchased */
     private final List<Product> products;
     
-    /** Total sale amount */
-    private final double totalAmount;
+    /** Total sale amount in cents */
+    private final long totalAmount;
     
     /** Time of sale */
     private final LocalDateTime saleTime;
@@ -46,9 +46,9 @@ public class Sale {
      * @param saleId Unique sale identifier
      * @param customer Customer making the purchase
      * @param products List of products purchased
-     * @param totalAmount Total transaction amount
+     * @param totalAmount Total transaction amount in cents
      */
-    public Sale(String saleId, Customer customer, List<Product> products, double totalAmount) {
+    public Sale(String saleId, Customer customer, List<Product> products, long totalAmount) {
         this.saleId = saleId;
         this.customer = customer;
         this.products = new ArrayList<>(products); // Defensive copy
@@ -87,9 +87,9 @@ public class Sale {
     /**
      * Gets the total amount of the sale.
      * 
-     * @return Total sale amount
+     * @return Total sale amount in cents
      */
-    public double getTotalAmount() {
+    public long getTotalAmount() {
         return totalAmount;
     }
     
@@ -110,7 +110,7 @@ public class Sale {
      */
     @Override
     public String toString() {
-        return String.format("Sale %s: Customer %s, %d items, Total: $%.2f", 
-            saleId, customer.getName(), products.size(), totalAmount);
+        return String.format("Sale %s: Customer %s, %d items, Total: %s", 
+            saleId, customer.getName(), products.size(), Money.format(totalAmount));
     }
 }
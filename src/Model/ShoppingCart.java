@@ -4,33 +4,67 @@
  * 
  * Key features:
  * - Item management (add/remove)
- * - Total price calculation
- * - Quantity tracking
- * - Purchase limit enforcement
+ * - One line item per product, holding its quantity
+ * - O(1) add, remove, quantity, item count and total, however many units are in the cart
+ * - Total price and item count kept up to date on every change
+ * - Purchase limit enforcement, configurable for wholesale carts
+ * - Transactional checkout: the whole cart is validated in one pass, then
+ *   every line is purchased or none is, and a single Sale is recorded
+ * 
+ * @see LineItem
+ * @see Sale
  */
 package Model;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import Exceptions.PurchaseLimitException;
 
 public class ShoppingCart {
-    /** Maximum number of items allowed in cart */
-    private static final int MAX_ITEMS = 10;
+    /** Default maximum number of items allowed in cart */
+    public static final int MAX_ITEMS = 10;
+    
+    /** Sequence numbering the sales of every cart */
+    private static final AtomicLong SALE_SEQUENCE = new AtomicLong();
     
-    /** Collection of items in the cart */
-    private final List<Product> items;
+    /** Lines of the cart by product, in the order products were first added */
+    private final Map<Product, LineItem> lines;
     
     /** Customer who owns this cart */
     private final Customer customer;
 
+    /** Maximum number of items allowed in this cart */
+    private final int maxItems;
+
+    /** Number of units over all lines */
+    private int itemCount;
+
+    /** Running total of all items in cart, in cents */
+    private long totalCents;
+
     /**
      * Constructs a new shopping cart for the given customer.
      * 
      * @param customer Customer who owns this cart
      */
     public ShoppingCart(Customer customer) {
+        this(customer, MAX_ITEMS);
+    }
+
+    /**
+     * Constructs a new shopping cart with its own item limit, e.g. for wholesale orders.
+     * 
+     * @param customer Customer who owns this cart
+     * @param maxItems Maximum number of items allowed in the cart
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public ShoppingCart(Customer customer, int maxItems) {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("Cart limit must be positive: " + maxItems);
+        }
         this.customer = customer;
-        this.items = new ArrayList<>();
+        this.maxItems = maxItems;
+        this.lines = new LinkedHashMap<>();
     }
 
     /**
@@ -40,34 +74,121 @@ public class ShoppingCart {
      * @throws PurchaseLimitException if cart would exceed maximum items
      */
     public void addItem(Product product) throws PurchaseLimitException {
-        if (items.size() >= MAX_ITEMS) {
-            throw new PurchaseLimitException("Cannot add more than " + MAX_ITEMS + " items to cart");
+        addItem(product, 1);
+    }
+
+    /**
+     * Adds units of a product to the shopping cart.
+     * 
+     * @param product Product to add to cart
+     * @param quantity Number of units to add
+     * @throws PurchaseLimitException if cart would exceed maximum items
+     * @throws IllegalArgumentException if the quantity is not positive
+     */
+    public void addItem(Product product, int quantity) throws PurchaseLimitException {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
         }
-        items.add(product);
+        if (quantity > maxItems - itemCount) {
+            throw new PurchaseLimitException("Cannot add more than " + maxItems + " items to cart");
+        }
+        // The new total is computed first, so an overflow leaves the cart unchanged
+        LineItem existing = lines.get(product);
+        LineItem line = existing != null ? existing : new LineItem(product);
+        long total = Money.add(totalCents, Money.multiply(line.getUnitPriceCents(), quantity));
+        if (existing == null) {
+            lines.put(product, line);
+        }
+        line.setQuantity(line.getQuantity() + quantity);
+        itemCount += quantity;
+        totalCents = total;
     }
 
     /**
-     * Removes a product from the shopping cart.
+     * Removes one unit of a product from the shopping cart.
      * 
      * @param product Product to remove from cart
      */
     public void removeItem(Product product) {
-        items.remove(product);
+        removeItem(product, 1);
+    }
+
+    /**
+     * Removes units of a product from the shopping cart.
+     * Removing more units than the cart holds removes the whole line.
+     * 
+     * @param product Product to remove from cart
+     * @param quantity Number of units to remove
+     * @return Number of units actually removed
+     */
+    public int removeItem(Product product, int quantity) {
+        LineItem line = lines.get(product);
+        if (line == null || quantity <= 0) {
+            return 0;
+        }
+        int removed = Math.min(quantity, line.getQuantity());
+        long total = Money.subtract(totalCents, Money.multiply(line.getUnitPriceCents(), removed));
+        if (removed == line.getQuantity()) {
+            lines.remove(product);
+        }
+        line.setQuantity(line.getQuantity() - removed);
+        itemCount -= removed;
+        totalCents = total;
+        return removed;
     }
 
     /**
      * Clears all items from the cart.
      */
     public void clearCart() {
-        items.clear();
+        lines.clear();
+        itemCount = 0;
+        totalCents = Money.ZERO;
     }
 
     /**
-     * Gets an unmodifiable list of items in cart.
+     * Gets the number of units of a product in the cart.
+     * 
+     * @param product Product to look up
+     * @return Quantity, 0 if the product is not in the cart
+     */
+    public int getQuantity(Product product) {
+        LineItem line = lines.get(product);
+        return line == null ? 0 : line.getQuantity();
+    }
+
+    /**
+     * Gets the line of a product.
+     * 
+     * @param product Product to look up
+     * @return The product's line, or null if the product is not in the cart
+     */
+    public LineItem getLineItem(Product product) {
+        return lines.get(product);
+    }
+
+    /**
+     * Gets the lines of the cart, in the order products were first added.
+     * 
+     * @return Unmodifiable view of the cart's lines
+     */
+    public Collection<LineItem> getLineItems() {
+        return Collections.unmodifiableCollection(lines.values());
+    }
+
+    /**
+     * Gets an unmodifiable list of items in cart, one entry per unit.
+     * The list is built on each call; prefer getLineItems for large carts.
      * 
      * @return Unmodifiable list of cart items
      */
     public List<Product> getItems() {
+        List<Product> items = new ArrayList<>(itemCount);
+        for (LineItem line : lines.values()) {
+            for (int i = 0; i < line.getQuantity(); i++) {
+                items.add(line.getProduct());
+            }
+        }
         return Collections.unmodifiableList(items);
     }
 
@@ -77,30 +198,47 @@ public class ShoppingCart {
      * @return Number of items
      */
     public int getItemCount() {
-        return items.size();
+        return itemCount;
+    }
+
+    /**
+     * Gets the maximum number of items allowed in this cart.
+     * 
+     * @return Item limit
+     */
+    public int getMaxItems() {
+        return maxItems;
     }
 
     /**
      * Gets the total price of all items in cart.
+     * The total is kept up to date as items are added and removed.
      * 
-     * @return Total price
+     * @return Total price in cents
      */
-    public double getTotal() {
-        return items.stream()
-                .mapToDouble(Product::getPrice)
-                .sum();
+    public long getTotal() {
+        return totalCents;
     }
 
     /**
-     * Completes the purchase of all items in cart.
+     * Completes the purchase of all items in cart as one transaction.
+     * The customer's limit and every line's stock are checked before anything
+     * is purchased; if the checkout fails, the cart and the customer's
+     * purchases are left unchanged.
      * 
-     * @throws PurchaseLimitException if purchase would exceed customer's limit
+     * @return The sale recording the purchase
+     * @throws PurchaseLimitException if purchase would exceed customer's limit or a line is out of stock
+     * @throws IllegalStateException if the cart is empty
      */
-    public void checkout() throws PurchaseLimitException {
-        for (Product item : items) {
-            customer.purchaseItem(item);
+    public Sale checkout() throws PurchaseLimitException {
+        if (itemCount == 0) {
+            throw new IllegalStateException("Cannot check out an empty cart");
         }
+        List<Product> purchased = customer.purchaseAll(lines.values(), itemCount);
+        Sale sale = new Sale(String.format("S%08d", SALE_SEQUENCE.incrementAndGet()), customer, purchased, totalCents);
+        customer.recordSale(sale);
         clearCart();
+        return sale;
     }
 
     /**
@@ -110,7 +248,7 @@ public class ShoppingCart {
      */
     @Override
     public String toString() {
-        return String.format("Shopping Cart: %d items, Total: $%.2f", 
-            items.size(), getTotal());
+        return String.format("Shopping Cart: %d items, Total: %s", 
+            itemCount, Money.format(totalCents));
     }
 }